@@ -0,0 +1,91 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Villager;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.jetbrains.annotations.NotNull;
+
+import dev.mja00.villagerLobotomizer.utils.SentryTaskWrapper;
+
+/**
+ * Smooths chunk-load storms into a steady stream of villager admissions.
+ * <p>
+ * Every loaded chunk's villagers are queued as one batch, prioritised by how close the chunk is to
+ * a player, and a global task hands batches back to their chunk's region until
+ * {@code villagersPerTick} villagers have been dispatched that tick. A batch is never split, and at
+ * least one is dispatched per tick so an oversized hall chunk can't block the queue.
+ */
+final class AdmissionQueue {
+    private final VillagerLobotomizer plugin;
+    private final PlayerProximityIndex proximityIndex;
+    private final Consumer<List<Villager>> admitter;
+    private final int villagersPerTick;
+    // Indexed by PlayerProximityIndex.Tier ordinal: near chunks are admitted first.
+    private final Queue<Batch>[] queues;
+    private final AtomicInteger queuedVillagers = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    AdmissionQueue(@NotNull VillagerLobotomizer plugin, @NotNull PlayerProximityIndex proximityIndex,
+                   @NotNull Consumer<List<Villager>> admitter, int villagersPerTick) {
+        this.plugin = plugin;
+        this.proximityIndex = proximityIndex;
+        this.admitter = admitter;
+        this.villagersPerTick = villagersPerTick;
+        this.queues = new Queue[PlayerProximityIndex.Tier.values().length];
+        for (int i = 0; i < this.queues.length; i++) {
+            this.queues[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Queues the villagers of one chunk for admission.
+     */
+    void enqueue(@NotNull World world, int chunkX, int chunkZ, @NotNull List<Villager> villagers) {
+        Location center = new Location(world, (chunkX << 4) + 8, 0, (chunkZ << 4) + 8);
+        PlayerProximityIndex.Tier tier = this.proximityIndex.tierOf(center);
+        this.queues[tier.ordinal()].add(new Batch(world, chunkX, chunkZ, villagers));
+        this.queuedVillagers.addAndGet(villagers.size());
+    }
+
+    int queuedVillagers() {
+        return this.queuedVillagers.get();
+    }
+
+    /**
+     * Dispatches this tick's share of batches. Runs on the global region thread.
+     */
+    void drain() {
+        int dispatched = 0;
+        for (Queue<Batch> queue : this.queues) {
+            while (dispatched == 0 || dispatched < this.villagersPerTick) {
+                Batch batch = queue.poll();
+                if (batch == null) {
+                    break;
+                }
+                this.queuedVillagers.addAndGet(-batch.villagers().size());
+                dispatched += batch.villagers().size();
+                dispatch(batch);
+            }
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        try {
+            Bukkit.getRegionScheduler().run(this.plugin, batch.world(), batch.chunkX(), batch.chunkZ(),
+                    SentryTaskWrapper.wrap((task) -> this.admitter.accept(batch.villagers())));
+        } catch (IllegalPluginAccessException e) {
+            // Plugin disabling; anything still queued is dropped with the storage.
+        }
+    }
+
+    private record Batch(World world, int chunkX, int chunkZ, List<Villager> villagers) {
+    }
+}
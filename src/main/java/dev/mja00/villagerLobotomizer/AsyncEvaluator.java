@@ -0,0 +1,86 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jetbrains.annotations.NotNull;
+
+import io.sentry.Sentry;
+
+/**
+ * A small fixed pool that runs villager policy evaluations off the server's tick threads.
+ * <p>
+ * The queue is bounded: when the pool falls behind, {@link #submit(Runnable)} refuses the job and
+ * the caller evaluates on its own thread instead, so a backlog can never grow without bound or
+ * delay decisions by more than a few batches.
+ */
+final class AsyncEvaluator {
+    static final int QUEUE_CAPACITY = 256;
+
+    private final Logger logger;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    AsyncEvaluator(@NotNull Logger logger, int threads) {
+        this.logger = logger;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                (runnable) -> {
+                    Thread thread = new Thread(runnable, "VillagerLobotomizer-Evaluator-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues a job for the pool.
+     *
+     * @return {@code false} if the queue is full or the pool is shut down; the job was not queued
+     */
+    boolean submit(@NotNull Runnable job) {
+        try {
+            this.executor.execute(() -> {
+                try {
+                    job.run();
+                } catch (Exception e) {
+                    if (Sentry.isEnabled()) {
+                        Sentry.captureException(e);
+                    }
+                    this.logger.log(Level.WARNING, "Async villager evaluation failed", e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            this.rejected.incrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * @return how many jobs are queued or running
+     */
+    int pending() {
+        return this.executor.getQueue().size() + this.executor.getActiveCount();
+    }
+
+    /**
+     * @return how many jobs were refused because the queue was full
+     */
+    int rejected() {
+        return this.rejected.get();
+    }
+
+    /**
+     * Stops the pool, dropping queued jobs. Their chunks are simply evaluated again on a later sweep.
+     */
+    void shutdown() {
+        this.executor.shutdownNow();
+    }
+}
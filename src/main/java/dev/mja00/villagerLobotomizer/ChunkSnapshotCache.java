@@ -0,0 +1,75 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The chunk snapshots sweeps took last, kept for as long as the chunk's stamp in
+ * {@link ChunkVersions} says none of its blocks changed, so a trading hall swept every few seconds
+ * isn't copied again each time.
+ * <p>
+ * Like decision reuse, this only sees block changes that come with an event, so a snapshot is
+ * taken again anyway after {@value #MAX_REUSES} reuses. A chunk's snapshot is dropped when it
+ * unloads. Each chunk is only read and written by the thread that owns it.
+ */
+final class ChunkSnapshotCache {
+    static final int MAX_REUSES = 16;
+
+    private final ChunkVersions versions;
+    private final Map<UUID, Map<Long, Cached>> worlds = new ConcurrentHashMap<>();
+
+    ChunkSnapshotCache(@NotNull ChunkVersions versions) {
+        this.versions = versions;
+    }
+
+    /**
+     * @return a snapshot of the chunk as it is now, reused if nothing in it changed since the last
+     * one; the chunk must be loaded and owned by the current thread
+     */
+    @NotNull ChunkSnapshot snapshotOf(@NotNull World world, int chunkX, int chunkZ) {
+        UUID worldId = world.getUID();
+        Map<Long, Cached> chunks = this.worlds.computeIfAbsent(worldId, (id) -> new ConcurrentHashMap<>());
+        long key = ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+        // Read before the snapshot, so a change racing it makes the next sweep take a new one.
+        long version = this.versions.versionOf(worldId, chunkX, chunkZ);
+        Cached cached = chunks.get(key);
+        if (cached != null && cached.version == version && cached.reuses < MAX_REUSES) {
+            cached.reuses++;
+            return cached.snapshot;
+        }
+        ChunkSnapshot snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+        chunks.put(key, new Cached(version, snapshot));
+        return snapshot;
+    }
+
+    void forget(@NotNull UUID world, int chunkX, int chunkZ) {
+        Map<Long, Cached> chunks = this.worlds.get(world);
+        if (chunks != null) {
+            chunks.remove(((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL));
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Map<Long, Cached> chunks : this.worlds.values()) {
+            size += chunks.size();
+        }
+        return size;
+    }
+
+    private static final class Cached {
+        final long version;
+        final ChunkSnapshot snapshot;
+        int reuses;
+
+        Cached(long version, ChunkSnapshot snapshot) {
+            this.version = version;
+            this.snapshot = snapshot;
+        }
+    }
+}
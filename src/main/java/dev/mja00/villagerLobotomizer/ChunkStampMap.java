@@ -0,0 +1,206 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A positive {@code long} stamp per chunk, kept per world under the chunk's packed coordinates, so
+ * nothing holds on to {@link org.bukkit.Chunk} wrappers or boxes a key and value per entry. A chunk
+ * without a stamp reads as {@code 0}.
+ * <p>
+ * Each world has its own table guarded by its own monitor, so changes in different worlds never
+ * contend. Visiting works on a copy taken under the monitor, so a visitor can schedule tasks or
+ * stamp chunks without holding it.
+ */
+final class ChunkStampMap {
+    /**
+     * Receives one stamped chunk.
+     */
+    @FunctionalInterface
+    interface Visitor {
+        void visit(@NotNull UUID world, int chunkX, int chunkZ, long stamp);
+    }
+
+    private final Map<UUID, Table> worlds = new ConcurrentHashMap<>();
+
+    /**
+     * @param stamp a positive stamp, replacing whatever the chunk had
+     */
+    void put(@NotNull UUID world, int chunkX, int chunkZ, long stamp) {
+        Table table = this.worlds.computeIfAbsent(world, (id) -> new Table());
+        synchronized (table) {
+            table.put(key(chunkX, chunkZ), stamp);
+        }
+    }
+
+    /**
+     * @return the chunk's stamp, or {@code 0} if it has none
+     */
+    long get(@NotNull UUID world, int chunkX, int chunkZ) {
+        Table table = this.worlds.get(world);
+        if (table == null) {
+            return 0L;
+        }
+        synchronized (table) {
+            return table.get(key(chunkX, chunkZ));
+        }
+    }
+
+    void remove(@NotNull UUID world, int chunkX, int chunkZ) {
+        removeIfStamped(world, chunkX, chunkZ, 0L);
+    }
+
+    /**
+     * Removes the chunk's stamp only if it is still {@code stamp}, so a chunk stamped again since it
+     * was visited keeps its new stamp. A {@code stamp} of {@code 0} removes it unconditionally.
+     */
+    void removeIfStamped(@NotNull UUID world, int chunkX, int chunkZ, long stamp) {
+        Table table = this.worlds.get(world);
+        if (table == null) {
+            return;
+        }
+        synchronized (table) {
+            int slot = table.find(key(chunkX, chunkZ));
+            if (slot >= 0 && (stamp == 0L || table.stamps[slot] == stamp)) {
+                table.removeAt(slot);
+            }
+        }
+    }
+
+    /**
+     * Visits every stamped chunk as it was when its world's table was copied.
+     */
+    void forEach(@NotNull Visitor visitor) {
+        for (Map.Entry<UUID, Table> world : this.worlds.entrySet()) {
+            long[] keys;
+            long[] stamps;
+            Table table = world.getValue();
+            synchronized (table) {
+                if (table.size == 0) {
+                    continue;
+                }
+                keys = table.keys.clone();
+                stamps = table.stamps.clone();
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (stamps[i] != 0L) {
+                    visitor.visit(world.getKey(), (int) (keys[i] >> 32), (int) keys[i], stamps[i]);
+                }
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Table table : this.worlds.values()) {
+            synchronized (table) {
+                size += table.size;
+            }
+        }
+        return size;
+    }
+
+    void clear() {
+        this.worlds.clear();
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * One open-addressing table with linear probing, like the state table's segments: removal
+     * shifts the following run back instead of leaving tombstones, and a free slot has stamp
+     * {@code 0}. It shrinks again once most of it is free, so a burst of block changes doesn't keep
+     * its memory after the chunks expire.
+     */
+    private static final class Table {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private long[] stamps = new long[INITIAL_CAPACITY];
+        private int size;
+
+        int find(long key) {
+            int mask = this.keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (this.stamps[i] == 0L) {
+                    return -1;
+                }
+                if (this.keys[i] == key) {
+                    return i;
+                }
+            }
+        }
+
+        long get(long key) {
+            int slot = find(key);
+            return slot < 0 ? 0L : this.stamps[slot];
+        }
+
+        void put(long key, long stamp) {
+            int slot = find(key);
+            if (slot >= 0) {
+                this.stamps[slot] = stamp;
+                return;
+            }
+            if ((this.size + 1) * 2 > this.keys.length) {
+                resize(this.keys.length * 2);
+            }
+            this.size++;
+            insert(key, stamp);
+        }
+
+        private void insert(long key, long stamp) {
+            int mask = this.keys.length - 1;
+            int i = mix(key) & mask;
+            while (this.stamps[i] != 0L) {
+                i = (i + 1) & mask;
+            }
+            this.keys[i] = key;
+            this.stamps[i] = stamp;
+        }
+
+        void removeAt(int slot) {
+            int mask = this.keys.length - 1;
+            int free = slot;
+            for (int j = (free + 1) & mask; this.stamps[j] != 0L; j = (j + 1) & mask) {
+                int home = mix(this.keys[j]) & mask;
+                // An entry whose home lies cyclically in (free, j] is still reachable; anything else
+                // would be cut off from its home by the hole, so it moves into it.
+                boolean reachable = free <= j ? (free < home && home <= j) : (free < home || home <= j);
+                if (!reachable) {
+                    this.keys[free] = this.keys[j];
+                    this.stamps[free] = this.stamps[j];
+                    free = j;
+                }
+            }
+            this.keys[free] = 0L;
+            this.stamps[free] = 0L;
+            this.size--;
+            if (this.keys.length > INITIAL_CAPACITY && this.size * 8 < this.keys.length) {
+                resize(this.keys.length / 2);
+            }
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = this.keys;
+            long[] oldStamps = this.stamps;
+            this.keys = new long[capacity];
+            this.stamps = new long[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldStamps[i] != 0L) {
+                    insert(oldKeys[i], oldStamps[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Modification stamps of the chunks whose blocks changed, so a check can tell whether anything the
+ * previous check of a villager read could have changed since.
+ * <p>
+ * A block change stamps its own chunk and, for a block on the chunk's edge, the chunk across that
+ * edge too, since a villager standing next to it reads one block into its neighbour. A villager
+ * therefore only compares the stamp of the chunk it stands in. Stamps come from one counter and
+ * only grow; a chunk that never changed reads as {@code 0}. A chunk's stamp is dropped when it
+ * unloads, which takes its villagers and everything remembered about them along with it, and its
+ * loaded neighbours are stamped when it loads or unloads, since a villager on their edge reads
+ * into it and an unloaded chunk reads differently from a loaded one.
+ * <p>
+ * Stamps only move for changes the server announces with an event. Blocks set by other plugins
+ * through {@code Block#setType}, or by world editors, change nothing here, so whatever relies on
+ * the stamps must also look again after a while regardless.
+ */
+final class ChunkVersions {
+    private final AtomicLong clock = new AtomicLong();
+    private final ChunkStampMap stamps = new ChunkStampMap();
+
+    /**
+     * Stamps the chunk of a changed block and, if the block is on its edge, the chunk across it.
+     */
+    void blockChanged(@NotNull UUID world, int blockX, int blockZ) {
+        long stamp = this.clock.incrementAndGet();
+        int chunkX = blockX >> 4;
+        int chunkZ = blockZ >> 4;
+        this.stamps.put(world, chunkX, chunkZ, stamp);
+        int inChunkX = blockX & 0xF;
+        int inChunkZ = blockZ & 0xF;
+        if (inChunkX == 0) {
+            this.stamps.put(world, chunkX - 1, chunkZ, stamp);
+        } else if (inChunkX == 15) {
+            this.stamps.put(world, chunkX + 1, chunkZ, stamp);
+        }
+        if (inChunkZ == 0) {
+            this.stamps.put(world, chunkX, chunkZ - 1, stamp);
+        } else if (inChunkZ == 15) {
+            this.stamps.put(world, chunkX, chunkZ + 1, stamp);
+        }
+    }
+
+    /**
+     * Stamps a chunk as if one of its blocks changed, for changes that aren't a single block, such
+     * as a neighbouring chunk loading or unloading.
+     */
+    void chunkChanged(@NotNull UUID world, int chunkX, int chunkZ) {
+        this.stamps.put(world, chunkX, chunkZ, this.clock.incrementAndGet());
+    }
+
+    /**
+     * @return the stamp of the last change that could affect a villager standing in the chunk, or
+     * {@code 0} if there was none
+     */
+    long versionOf(@NotNull UUID world, int chunkX, int chunkZ) {
+        return this.stamps.get(world, chunkX, chunkZ);
+    }
+
+    void forget(@NotNull UUID world, int chunkX, int chunkZ) {
+        this.stamps.remove(world, chunkX, chunkZ);
+    }
+
+    int size() {
+        return this.stamps.size();
+    }
+}
@@ -0,0 +1,62 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Which tracked villagers a config key can affect, so a change made with {@code /lobotomy config set}
+ * is applied to just those villagers instead of through a full reload.
+ */
+enum ConfigKeyScope {
+    /**
+     * Changes the decision only for villagers with a custom name.
+     */
+    NAMED_VILLAGERS("always-active-names"),
+    /**
+     * Can change the decision for any villager.
+     */
+    ALL_VILLAGERS(
+            "check-roof",
+            "only-lobotomize-villagers-with-professions",
+            "only-lobotomize-villagers-with-experience",
+            "always-lobotomize-villagers-in-vehicles",
+            "ignore-villagers-stuck-in-doors",
+            "ignore-non-solid-blocks"),
+    /**
+     * Leaves decisions alone; only villagers now checked outside their allowed range are rescheduled.
+     */
+    INTERVALS(
+            "check-interval",
+            "inactive-check-interval",
+            "max-check-interval",
+            "near-player-check-interval",
+            "far-player-check-interval"),
+    /**
+     * Changes how lobotomized villagers are kept, not whether they are.
+     */
+    LOBOTOMIZED_VILLAGERS("silent-lobotomized-villagers", "persist-lobotomized-state"),
+    /**
+     * Read when a villager is next restocked; nobody needs touching.
+     */
+    NO_VILLAGERS("restock-interval", "restock-random-range");
+
+    private final Set<String> keys;
+
+    ConfigKeyScope(String... keys) {
+        this.keys = Set.of(keys);
+    }
+
+    /**
+     * @return the scope of {@code key}, or {@code null} if it only takes effect on {@code /lobotomy reload}
+     */
+    static @Nullable ConfigKeyScope of(@NotNull String key) {
+        for (ConfigKeyScope scope : values()) {
+            if (scope.keys.contains(key)) {
+                return scope;
+            }
+        }
+        return null;
+    }
+}
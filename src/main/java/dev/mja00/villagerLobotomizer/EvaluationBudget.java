@@ -0,0 +1,76 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.function.IntSupplier;
+
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Caps how much wall time villager checks and chunk sweeps may spend on one thread in one server
+ * tick.
+ * <p>
+ * Windows are kept per thread and keyed by {@link Bukkit#getCurrentTick()}: the first charge or
+ * check in a new tick finds the window spent in an earlier tick and starts it over. On Paper every
+ * cell driver and sweep runs on the main thread, so they all draw from one window per tick; on
+ * Folia the current tick is the ticking region's, so each region thread gets its own. However many
+ * cells are due on a thread, together they stay within the budget.
+ */
+final class EvaluationBudget {
+    private final long budgetNanos;
+    private final IntSupplier currentTick;
+    private final ThreadLocal<Window> windows = ThreadLocal.withInitial(Window::new);
+
+    /**
+     * @param budgetNanos nanoseconds of evaluation allowed per thread per tick; {@code <= 0} means
+     *                    unlimited
+     */
+    EvaluationBudget(long budgetNanos) {
+        this(budgetNanos, Bukkit::getCurrentTick);
+    }
+
+    EvaluationBudget(long budgetNanos, @NotNull IntSupplier currentTick) {
+        this.budgetNanos = budgetNanos;
+        this.currentTick = currentTick;
+    }
+
+    boolean isUnlimited() {
+        return this.budgetNanos <= 0L;
+    }
+
+    /**
+     * @return {@code true} if the current thread may start another evaluation this tick
+     */
+    boolean hasRemaining() {
+        if (isUnlimited()) {
+            return true;
+        }
+        return window().spentNanos < this.budgetNanos;
+    }
+
+    /**
+     * Records time spent evaluating on the current thread this tick.
+     */
+    void charge(long nanos) {
+        if (isUnlimited()) {
+            return;
+        }
+        window().spentNanos += nanos;
+    }
+
+    private Window window() {
+        Window window = this.windows.get();
+        int tick = this.currentTick.getAsInt();
+        if (!window.opened || window.tick != tick) {
+            window.opened = true;
+            window.tick = tick;
+            window.spentNanos = 0L;
+        }
+        return window;
+    }
+
+    private static final class Window {
+        boolean opened;
+        int tick;
+        long spentNanos;
+    }
+}
@@ -0,0 +1,164 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sheds villager work while the server is falling behind and restores it once it recovers.
+ * <p>
+ * Samples once a second and moves one shedding level per sample: level 1 pauses trade refreshes,
+ * which are the cheapest thing to postpone, and every level past that doubles the wheel's check
+ * intervals up to {@code maxMultiplier}. Stepping back down needs {@value #RECOVERY_SAMPLES}
+ * healthy samples in a row so a server hovering around a threshold doesn't flap.
+ * <p>
+ * Paper reports its own TPS and MSPT. Folia has no server-wide tick time, so there the TPS is
+ * derived from how often the wheel's region drivers actually tick, which is each region's real
+ * tick rate averaged over the regions that hold villagers.
+ */
+final class LoadGovernor {
+    static final long SAMPLE_INTERVAL_TICKS = 20L;
+    static final int RECOVERY_SAMPLES = 5;
+    // Recover only once MSPT is comfortably below the threshold, not just under it.
+    private static final double RECOVERY_MSPT_FRACTION = 0.8;
+    private static final double RECOVERY_TPS_MARGIN = 0.5;
+    private static final double NOMINAL_TPS = 20.0;
+    // Driver gaps longer than this are a parked or re-anchored driver, not a slow tick.
+    private static final long MAX_DRIVER_PERIOD_NANOS = 1_000_000_000L;
+
+    private final VillagerLobotomizer plugin;
+    private final Logger logger;
+    private final boolean enabled;
+    private final double msptThreshold;
+    private final double tpsThreshold;
+    private final int maxLevel;
+    private final LongAdder driverPeriodNanos = new LongAdder();
+    private final LongAdder driverTicks = new LongAdder();
+    private final LongAdder modeChanges = new LongAdder();
+    private volatile int level = 0;
+    private int healthySamples = 0;
+
+    /**
+     * @param maxMultiplier the largest factor check intervals may be stretched by; rounded down to a
+     *                      power of two, and {@code 1} only ever pauses trade refreshes
+     */
+    LoadGovernor(@NotNull VillagerLobotomizer plugin, boolean enabled, double msptThreshold, double tpsThreshold, int maxMultiplier) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.enabled = enabled;
+        this.msptThreshold = msptThreshold;
+        this.tpsThreshold = tpsThreshold;
+        this.maxLevel = 1 + (31 - Integer.numberOfLeadingZeros(Math.max(1, maxMultiplier)));
+    }
+
+    boolean isEnabled() {
+        return this.enabled;
+    }
+
+    int level() {
+        return this.level;
+    }
+
+    boolean tradeRefreshPaused() {
+        return this.level >= 1;
+    }
+
+    /**
+     * @return the factor check intervals are currently stretched by
+     */
+    long intervalMultiplier() {
+        int current = this.level;
+        return current <= 1 ? 1L : 1L << (current - 1);
+    }
+
+    long modeChanges() {
+        return this.modeChanges.sum();
+    }
+
+    /**
+     * Records the gap between two consecutive ticks of a wheel driver.
+     */
+    void recordDriverPeriod(long nanos) {
+        if (nanos <= 0L || nanos > MAX_DRIVER_PERIOD_NANOS) {
+            return;
+        }
+        this.driverPeriodNanos.add(nanos);
+        this.driverTicks.increment();
+    }
+
+    /**
+     * Takes one sample of the server's tick rate and moves the shedding level. Runs on the global
+     * region thread.
+     */
+    void sample() {
+        if (!this.enabled) {
+            return;
+        }
+        double tps;
+        double mspt;
+        if (this.plugin.isFolia()) {
+            long ticks = this.driverTicks.sumThenReset();
+            long nanos = this.driverPeriodNanos.sumThenReset();
+            // No villagers on any wheel means no villager work to shed either.
+            tps = ticks == 0L ? NOMINAL_TPS : Math.min(NOMINAL_TPS, 1_000_000_000.0 * ticks / nanos);
+            mspt = Double.NaN;
+        } else {
+            tps = Bukkit.getTPS()[0];
+            mspt = Bukkit.getAverageTickTime();
+        }
+        update(tps, mspt);
+    }
+
+    /**
+     * Moves the shedding level for one sample. {@code mspt} may be {@code NaN} when the platform
+     * doesn't report it.
+     *
+     * @return {@code true} if the level changed
+     */
+    boolean update(double tps, double mspt) {
+        boolean underPressure = tps < this.tpsThreshold || (!Double.isNaN(mspt) && mspt > this.msptThreshold);
+        boolean healthy = tps >= Math.min(NOMINAL_TPS, this.tpsThreshold + RECOVERY_TPS_MARGIN) - 1e-9
+                && (Double.isNaN(mspt) || mspt < this.msptThreshold * RECOVERY_MSPT_FRACTION);
+        int previous = this.level;
+        int next = previous;
+        if (underPressure) {
+            this.healthySamples = 0;
+            next = Math.min(this.maxLevel, previous + 1);
+        } else if (healthy && previous > 0) {
+            if (++this.healthySamples >= RECOVERY_SAMPLES) {
+                this.healthySamples = 0;
+                next = previous - 1;
+            }
+        } else {
+            this.healthySamples = 0;
+        }
+        if (next == previous) {
+            return false;
+        }
+        this.level = next;
+        this.modeChanges.increment();
+        this.logger.info("Load shedding " + (next > previous ? "raised" : "lowered") + " to " + describe(next)
+                + " (TPS " + String.format("%.1f", tps)
+                + (Double.isNaN(mspt) ? "" : ", MSPT " + String.format("%.1f", mspt)) + ")");
+        return true;
+    }
+
+    /**
+     * @return a short description of the current shedding mode, for logs and /lobotomy info
+     */
+    String describe() {
+        return describe(this.level);
+    }
+
+    private static String describe(int level) {
+        if (level <= 0) {
+            return "off";
+        }
+        if (level == 1) {
+            return "trade refreshes paused";
+        }
+        return "trade refreshes paused, checks stretched x" + (1L << (level - 1));
+    }
+}
@@ -1,6 +1,9 @@
 package dev.mja00.villagerLobotomizer;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -100,6 +103,104 @@ public class LobotomizeCommand {
                 .append(Component.text(" ("))
                 .append(Component.text(String.valueOf(Math.round((double)10000.0F * (double)inactive / (double)total) / (double)100.0F)).color(NamedTextColor.GREEN))
                 .append(Component.text("%)"));
+        Map<String, VillagerStateTable.StateCounts> byWorld = this.plugin.getStorage().getCountsByWorld();
+        if (byWorld.size() > 1) {
+            for (Map.Entry<String, VillagerStateTable.StateCounts> world : byWorld.entrySet()) {
+                message = message.append(Component.text("\n  " + world.getKey() + ": "))
+                        .append(Component.text(String.valueOf(world.getValue().active())).color(NamedTextColor.GREEN))
+                        .append(Component.text(" active, "))
+                        .append(Component.text(String.valueOf(world.getValue().inactive())).color(NamedTextColor.RED))
+                        .append(Component.text(" lobotomized"));
+            }
+        }
+        Map<String, VillagerStateTable.StateCounts> byProfession = this.plugin.getStorage().getCountsByProfession();
+        if (inactive > 0) {
+            message = message.append(Component.text("\nLobotomized by profession:"));
+            for (Map.Entry<String, VillagerStateTable.StateCounts> profession : byProfession.entrySet()) {
+                if (profession.getValue().inactive() == 0) {
+                    continue;
+                }
+                message = message.append(Component.text(" " + profession.getKey() + ": "))
+                        .append(Component.text(String.valueOf(profession.getValue().inactive())).color(NamedTextColor.RED));
+            }
+        }
+        int queued = this.plugin.getStorage().getQueuedAdmissionCount();
+        if (queued > 0) {
+            message = message.append(Component.text("\nWaiting to be admitted from loaded chunks: "))
+                    .append(Component.text(String.valueOf(queued)).color(NamedTextColor.YELLOW));
+        }
+        int suspended = this.plugin.getStorage().getSuspendedCount();
+        if (suspended > 0) {
+            message = message.append(Component.text("\nIn quiescent chunks (not being checked): "))
+                    .append(Component.text(String.valueOf(suspended)).color(NamedTextColor.GREEN));
+        }
+        int sweeping = this.plugin.getStorage().getSweepingChunkCount();
+        if (sweeping > 0) {
+            message = message.append(Component.text("\nDense chunks swept as a whole: "))
+                    .append(Component.text(String.valueOf(sweeping)).color(NamedTextColor.GREEN));
+        }
+        AsyncEvaluator evaluator = this.plugin.getStorage().getAsyncEvaluator();
+        if (evaluator != null && sweeping > 0) {
+            message = message.append(Component.text("\nSweeps waiting for async evaluation: "))
+                    .append(Component.text(String.valueOf(evaluator.pending())).color(NamedTextColor.GREEN))
+                    .append(Component.text(" (" + evaluator.rejected() + " evaluated on the server thread while the queue was full)"));
+        }
+        long reused = this.plugin.getStorage().getDecisionsReused();
+        long decided = reused + this.plugin.getStorage().getDecisionsEvaluated();
+        if (decided > 0) {
+            message = message.append(Component.text("\nDecisions reused without evaluating: "))
+                    .append(Component.text(String.valueOf(Math.round((double)10000.0F * (double)reused / (double)decided) / (double)100.0F)).color(NamedTextColor.GREEN))
+                    .append(Component.text("% of " + decided + " checks"));
+        }
+        StateAuditor auditor = this.plugin.getStorage().getAuditor();
+        if (auditor.audited() > 0) {
+            Map<String, Integer> repairs = auditor.repairs();
+            int repaired = repairs.values().stream().mapToInt(Integer::intValue).sum();
+            message = message.append(Component.text("\nState audit: "))
+                    .append(Component.text(String.valueOf(auditor.audited())).color(NamedTextColor.GREEN))
+                    .append(Component.text(" checked, "))
+                    .append(Component.text(String.valueOf(repaired)).color(repaired == 0 ? NamedTextColor.GREEN : NamedTextColor.YELLOW))
+                    .append(Component.text(" repaired"));
+            if (repaired > 0) {
+                StringBuilder kinds = new StringBuilder();
+                for (Map.Entry<String, Integer> repair : repairs.entrySet()) {
+                    if (repair.getValue() > 0) {
+                        kinds.append(kinds.isEmpty() ? " (" : ", ").append(repair.getKey()).append(": ").append(repair.getValue());
+                    }
+                }
+                message = message.append(Component.text(kinds.append(")").toString()));
+            }
+            int foreign = auditor.reports().getOrDefault(StateAuditor.Drift.FOREIGN_AWARENESS.name().toLowerCase(), 0);
+            if (foreign > 0) {
+                message = message.append(Component.text(", "))
+                        .append(Component.text(String.valueOf(foreign)).color(NamedTextColor.YELLOW))
+                        .append(Component.text(" active villager(s) found with AI turned off by another plugin, left alone"));
+            }
+        }
+        LoadGovernor governor = this.plugin.getStorage().getLoadGovernor();
+        if (governor.isEnabled()) {
+            message = message.append(Component.text("\nLoad shedding: "))
+                    .append(Component.text(governor.describe()).color(governor.level() == 0 ? NamedTextColor.GREEN : NamedTextColor.YELLOW))
+                    .append(Component.text(" (" + governor.modeChanges() + " mode changes)"));
+        }
+        if (sender instanceof Player player) {
+            List<Villager> here = this.plugin.getStorage().getTrackedVillagersIn(player.getLocation().getChunk());
+            long lobotomizedHere = here.stream().filter(this.plugin.getStorage().getLobotomized()::contains).count();
+            message = message.append(Component.text("\nTracked in your chunk: "))
+                    .append(Component.text(String.valueOf(here.size())).color(NamedTextColor.GREEN))
+                    .append(Component.text(" (" + lobotomizedHere + " lobotomized)"));
+        }
+        Map<String, Integer> checkLoad = this.plugin.getStorage().getCheckLoad().perMille();
+        if (!checkLoad.isEmpty()) {
+            message = message.append(Component.text("\nChecks per wheel tick:"));
+            for (Map.Entry<String, Integer> bucket : checkLoad.entrySet()) {
+                if (bucket.getValue() == 0) {
+                    continue;
+                }
+                message = message.append(Component.text(" " + bucket.getKey() + ": "))
+                        .append(Component.text(bucket.getValue() / 10.0 + "%").color(NamedTextColor.GREEN));
+            }
+        }
         sender.sendMessage(message);
 
         return Command.SINGLE_SUCCESS;
@@ -216,15 +317,18 @@ public class LobotomizeCommand {
     }
 
     private int reloadCommand(CommandSourceStack source) throws CommandSyntaxException {
-        int villagers = this.plugin.reloadPluginState();
-        if (villagers < 0) {
-            source.getSender().sendMessage(Component.text("Failed to reload storage; keeping existing state. Check console for details.").color(NamedTextColor.RED));
+        CommandSender sender = source.getSender();
+        int chunks = this.plugin.reloadPluginState((villagers) -> sender.sendMessage(Component.text("Reloaded ")
+                .append(Component.text(String.valueOf(villagers)).color(NamedTextColor.GREEN))
+                .append(Component.text(" villagers."))));
+        if (chunks < 0) {
+            sender.sendMessage(Component.text("Failed to reload storage; keeping existing state. Check console for details.").color(NamedTextColor.RED));
             return 0;
         }
-        Component message = Component.text("Reloaded ")
-                .append(Component.text(String.valueOf(villagers)).color(NamedTextColor.GREEN))
-                .append(Component.text(" villagers. The config file was also reloaded."));
-        source.getSender().sendMessage(message);
+        Component message = Component.text("The config file was reloaded. Tracked villagers keep their state; checking ")
+                .append(Component.text(String.valueOf(chunks)).color(NamedTextColor.GREEN))
+                .append(Component.text(" loaded chunks for untracked villagers over the next few ticks."));
+        sender.sendMessage(message);
         return Command.SINGLE_SUCCESS;
     }
 
@@ -316,19 +420,31 @@ public class LobotomizeCommand {
             } else if (currentValue instanceof String) {
                 this.plugin.getConfig().set(key, value);
             } else if (currentValue instanceof List) {
-                // List editing unsupported via command
-                source.getSender().sendMessage(Component.text("Setting list values is not supported yet. Use the config file directly.").color(NamedTextColor.YELLOW));
-                return 0;
+                // Lists are given comma-separated; an empty value clears the list.
+                List<String> entries = Arrays.stream(value.split(","))
+                        .map(String::trim)
+                        .filter(entry -> !entry.isEmpty())
+                        .toList();
+                this.plugin.getConfig().set(key, entries);
             } else {
                 source.getSender().sendMessage(Component.text("Cannot set value for '" + key + "': unsupported type.").color(NamedTextColor.RED));
                 return 0;
             }
 
+            if (Objects.equals(currentValue, this.plugin.getConfig().get(key))) {
+                source.getSender().sendMessage(Component.text("'" + key + "' is already set to '" + value + "'").color(NamedTextColor.YELLOW));
+                return Command.SINGLE_SUCCESS;
+            }
             this.plugin.saveConfig();
             this.plugin.reloadConfig();
 
             source.getSender().sendMessage(Component.text("Successfully set '" + key + "' to '" + value + "'").color(NamedTextColor.GREEN));
-            source.getSender().sendMessage(Component.text("Note: You may need to run '/lobotomy reload' for changes to take effect.").color(NamedTextColor.YELLOW));
+            int touched = this.plugin.getStorage().applyConfigChange(key);
+            if (touched < 0) {
+                source.getSender().sendMessage(Component.text("Note: Run '/lobotomy reload' for this change to take effect.").color(NamedTextColor.YELLOW));
+            } else {
+                source.getSender().sendMessage(Component.text("Applied live; " + touched + " villager(s) affected.").color(NamedTextColor.GREEN));
+            }
 
             return Command.SINGLE_SUCCESS;
 
@@ -1,7 +1,8 @@
 package dev.mja00.villagerLobotomizer;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -9,7 +10,10 @@ import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -23,7 +27,6 @@ import org.bukkit.Sound;
 import org.bukkit.SoundCategory;
 import org.bukkit.World;
 import org.bukkit.block.Block;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.Vehicle;
 import org.bukkit.entity.Villager;
 import org.bukkit.inventory.MerchantRecipe;
@@ -33,55 +36,64 @@ import org.bukkit.plugin.IllegalPluginAccessException;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import dev.mja00.villagerLobotomizer.policy.BlockClassifier;
 import dev.mja00.villagerLobotomizer.policy.BlockGrid;
 import dev.mja00.villagerLobotomizer.policy.BlockSnapshot;
 import dev.mja00.villagerLobotomizer.policy.VillagerActivityPolicy;
-import dev.mja00.villagerLobotomizer.policy.VillagerState;
+import dev.mja00.villagerLobotomizer.policy.VillagerBatch;
 import dev.mja00.villagerLobotomizer.utils.SentryTaskWrapper;
 import dev.mja00.villagerLobotomizer.utils.StringUtils;
 import dev.mja00.villagerLobotomizer.utils.VillagerUtils;
 import io.papermc.paper.registry.RegistryAccess;
 import io.papermc.paper.registry.RegistryKey;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 
 public class LobotomizeStorage {
     private final VillagerLobotomizer plugin;
     private final NamespacedKey key;
     private final NamespacedKey lobotomizedKey;
     private final NamespacedKey lastRestockCheckDayTimeKey;
-    private final Set<Villager> activeVillagers = Collections.newSetFromMap(new ConcurrentHashMap<>(128));
-    private final Set<Villager> inactiveVillagers = Collections.newSetFromMap(new ConcurrentHashMap<>(128));
-    private final Map<Chunk, Long> changedChunks = new ConcurrentHashMap<>();
-    private final Map<UUID, ScheduledTask> villagerTasks = new ConcurrentHashMap<>();
-    private final Map<UUID, Long> villagerTaskIntervals = new ConcurrentHashMap<>();
-    private final Set<String> exemptNames;
-    private final long checkInterval;
-    private final long inactiveCheckInterval;
-    private final long restockInterval;
-    private final long restockRandomRange;
-    private final boolean onlyProfessions;
-    private final boolean onlyWithExperience;
-    private final boolean lobotomizePassengers;
-    private final boolean checkRoof;
-    private final boolean silentLobotomizedVillagers;
-    private final boolean persistLobotomizedState;
-    private final boolean ignoreStuckInDoors;
-    private final VillagerActivityPolicy activityPolicy;
+    private final VillagerStateTable villagerStates = new VillagerStateTable();
+    // When each recently changed chunk last had a block change, in epoch millis.
+    private final ChunkStampMap changedChunks = new ChunkStampMap();
+    private final ChunkVersions chunkVersions = new ChunkVersions();
+    private final ChunkSnapshotCache chunkSnapshots = new ChunkSnapshotCache(this.chunkVersions);
+    private final LongAdder decisionsReused = new LongAdder();
+    private final LongAdder decisionsEvaluated = new LongAdder();
+    private final VillagerTimingWheel timingWheel;
+    private final EvaluationBudget evaluationBudget;
+    private final LoadGovernor loadGovernor;
+    // The volatile settings are swapped in place by applyConfigChange().
+    private volatile long checkInterval;
+    private volatile long inactiveCheckInterval;
+    private volatile long maxCheckInterval;
+    private volatile long nearPlayerCheckInterval;
+    private volatile long farPlayerCheckInterval;
+    private final int quiescentChunkChecks;
+    private final PlayerProximityIndex proximityIndex;
+    private final AdmissionQueue admissionQueue;
+    private final AsyncEvaluator asyncEvaluator;
+    private final long shutdownWakeDeadlineMillis;
+    private volatile long restockInterval;
+    private volatile long restockRandomRange;
+    private volatile boolean silentLobotomizedVillagers;
+    private volatile boolean persistLobotomizedState;
+    private volatile VillagerActivityPolicy activityPolicy;
     private Sound restockSound;
     private Sound levelUpSound;
     private final Logger logger;
     private final Random random = new Random();
     private volatile boolean shuttingDown = false;
     private final ScheduledTask chunkProcessingTask;
-    private ScheduledTask watchdogTask;
-    private static final long WATCHDOG_INTERVAL_TICKS = 1200L;
-    // Guards compound mutations of activeVillagers/inactiveVillagers so a villager
-    // is never observable in both sets simultaneously.
-    private final Object stateLock = new Object();
+    private final StateAuditor auditor;
+    private ScheduledTask auditTask;
+    private ScheduledTask wheelSupervisorTask;
+    private ScheduledTask loadGovernorTask;
+    private ScheduledTask proximityIndexTask;
+    private final ScheduledTask admissionTask;
+    private static final long WHEEL_SUPERVISOR_INTERVAL_TICKS = 100L;
 
     /**
      * Initializes the villager lobotomization storage system.
@@ -91,17 +103,18 @@ public class LobotomizeStorage {
     public LobotomizeStorage(VillagerLobotomizer plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
-        // check-interval/inactive-check-interval are scheduler periods (ticks) and must be >= 1, or
-        // runAtFixedRate throws IllegalArgumentException for every tracked villager. restock-interval
-        // and restock-random-range are wall-clock milliseconds and must not be negative.
-        this.checkInterval = validateInterval("check-interval", plugin.getConfig().getLong("check-interval"), 1L, 150L);
-        this.inactiveCheckInterval = validateInterval("inactive-check-interval", plugin.getConfig().getLong("inactive-check-interval", this.checkInterval), 1L, 150L);
-        this.restockInterval = validateInterval("restock-interval", plugin.getConfig().getLong("restock-interval"), 0L, 540000L);
-        this.restockRandomRange = validateInterval("restock-random-range", plugin.getConfig().getLong("restock-random-range"), 0L, 0L);
-        this.onlyProfessions = plugin.getConfig().getBoolean("only-lobotomize-villagers-with-professions");
-        this.onlyWithExperience = plugin.getConfig().getBoolean("only-lobotomize-villagers-with-experience");
-        this.lobotomizePassengers = plugin.getConfig().getBoolean("always-lobotomize-villagers-in-vehicles");
-        this.checkRoof = plugin.getConfig().getBoolean("check-roof");
+        readCheckIntervals();
+        // A distance of 0 turns that proximity tier off.
+        this.proximityIndex = new PlayerProximityIndex(
+                plugin,
+                validateInterval("near-player-distance", plugin.getConfig().getLong("near-player-distance", 24L), 0L, 24L),
+                validateInterval("far-player-distance", plugin.getConfig().getLong("far-player-distance", 128L), 0L, 128L));
+        // Without block-change updates nothing would ever wake a suspended chunk, so quiescence needs them.
+        this.quiescentChunkChecks = plugin.getConfig().getBoolean("disable-chunk-villager-updates") ? 0
+                : (int) Math.min(Integer.MAX_VALUE, validateInterval("quiescent-chunk-checks", plugin.getConfig().getLong("quiescent-chunk-checks", 4L), 0L, 4L));
+        // How long shutdown may spend waking lobotomized villagers; the rest rely on the persistent marker.
+        this.shutdownWakeDeadlineMillis = validateInterval("shutdown-wake-deadline-ms", plugin.getConfig().getLong("shutdown-wake-deadline-ms", 5000L), 0L, 5000L);
+        readRestockIntervals();
         this.silentLobotomizedVillagers = plugin.getConfig().getBoolean("silent-lobotomized-villagers");
         this.persistLobotomizedState = plugin.getConfig().getBoolean("persist-lobotomized-state", true);
         String soundName = plugin.getConfig().getString("restock-sound", "");
@@ -125,25 +138,7 @@ public class LobotomizeStorage {
             levelUpSoundName = levelUpSoundName.replace("minecraft:", "");
         }
 
-        List<String> configNames = plugin.getConfig().getStringList("always-active-names");
-        exemptNames = configNames.stream()
-                .filter(Objects::nonNull)
-                .map(String::toLowerCase)
-                .collect(Collectors.toSet());
-
-        // Whether door blocks should count as a bypass (passable) block. Stored per-instance so it
-        // is re-read on /lobotomy reload, then passed into the activity policy below.
-        this.ignoreStuckInDoors = plugin.getConfig().getBoolean("ignore-villagers-stuck-in-doors");
-
-        this.activityPolicy = new VillagerActivityPolicy(
-                this.lobotomizePassengers,
-                this.onlyProfessions,
-                this.onlyWithExperience,
-                this.checkRoof,
-                this.ignoreStuckInDoors,
-                plugin.getConfig().getBoolean("ignore-non-solid-blocks"),
-                this.exemptNames,
-                BlockClassifier.fromServerRegistry());
+        this.activityPolicy = readActivityPolicy();
 
         Registry<@NotNull Sound> soundRegistry = RegistryAccess.registryAccess().getRegistry(RegistryKey.SOUND_EVENT);
 
@@ -179,6 +174,52 @@ public class LobotomizeStorage {
         this.key = new NamespacedKey(plugin, "lastRestock");
         this.lobotomizedKey = new NamespacedKey(plugin, "isLobotomized");
         this.lastRestockCheckDayTimeKey = new NamespacedKey(plugin, "lastRestockCheckDayTime");
+        // Wall-time cap on the villager checks and sweeps of one thread in one tick; 0 means unlimited.
+        double budgetMillis = plugin.getConfig().getDouble("evaluation-budget-ms", 2.0);
+        if (budgetMillis < 0.0) {
+            this.logger.warning("Config value 'evaluation-budget-ms' must be >= 0 (got " + budgetMillis + "); falling back to 2.0.");
+            budgetMillis = 2.0;
+        }
+        this.evaluationBudget = new EvaluationBudget((long) (budgetMillis * 1_000_000L));
+        double msptThreshold = plugin.getConfig().getDouble("load-shedding-mspt", 50.0);
+        if (msptThreshold <= 0.0) {
+            this.logger.warning("Config value 'load-shedding-mspt' must be > 0 (got " + msptThreshold + "); falling back to 50.0.");
+            msptThreshold = 50.0;
+        }
+        double tpsThreshold = plugin.getConfig().getDouble("load-shedding-tps", 18.0);
+        if (tpsThreshold < 0.0 || tpsThreshold > 20.0) {
+            this.logger.warning("Config value 'load-shedding-tps' must be between 0 and 20 (got " + tpsThreshold + "); falling back to 18.0.");
+            tpsThreshold = 18.0;
+        }
+        this.loadGovernor = new LoadGovernor(
+                plugin,
+                plugin.getConfig().getBoolean("load-shedding", true),
+                msptThreshold,
+                tpsThreshold,
+                (int) Math.min(1024L, validateInterval("load-shedding-max-multiplier", plugin.getConfig().getLong("load-shedding-max-multiplier", 8L), 1L, 8L)));
+        // Chunks holding at least this many villagers are swept as a whole instead of one check per
+        // villager; 0 disables sweeping.
+        int sweepThreshold = (int) Math.min(Integer.MAX_VALUE, validateInterval("chunk-sweep-threshold", plugin.getConfig().getLong("chunk-sweep-threshold", 32L), 0L, 32L));
+        // Suspended chunks look for due restocks twice per restock-interval (in milliseconds), so a
+        // restock comes at most half an interval late.
+        this.timingWheel = new VillagerTimingWheel(plugin, this::processVillagerSafely, this.evaluationBudget, this.loadGovernor,
+                this::sweepChunk, sweepThreshold, this::refreshSuspended, () -> Math.max(20L, this.restockInterval / 100L));
+        // Swept chunks are snapshotted on their region thread and evaluated on this many background
+        // threads; 0 keeps every evaluation on the tick thread.
+        int asyncThreads = (int) Math.min(64L, validateInterval("async-evaluation-threads", plugin.getConfig().getLong("async-evaluation-threads", 2L), 0L, 2L));
+        this.asyncEvaluator = asyncThreads > 0 ? new AsyncEvaluator(this.logger, asyncThreads) : null;
+        // Cap on how many villagers from loaded chunks are admitted per tick; the rest wait their turn.
+        this.admissionQueue = new AdmissionQueue(
+                plugin,
+                this.proximityIndex,
+                this::admitVillagers,
+                (int) Math.min(Integer.MAX_VALUE, validateInterval("admission-villagers-per-tick", plugin.getConfig().getLong("admission-villagers-per-tick", 200L), 1L, 200L)));
+        this.admissionTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+                plugin,
+                SentryTaskWrapper.wrap((task) -> this.admissionQueue.drain()),
+                1L,
+                1L
+        );
         // Use Paper's GlobalRegionScheduler for chunk processing. It never touches entities directly;
         // per-chunk entity access is dispatched to the owning region via getRegionScheduler() (see
         // scheduleChunkVillagerProcessing), keeping this Folia thread-ownership safe.
@@ -188,64 +229,215 @@ public class LobotomizeStorage {
                 5L,
                 5L
         );
-        this.watchdogTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(
-                plugin,
-                SentryTaskWrapper.wrap((task) -> this.runWatchdog()),
-                WATCHDOG_INTERVAL_TICKS,
-                WATCHDOG_INTERVAL_TICKS
-        );
+        // A few tracked villagers are audited every tick, so drift is found in bounded time without
+        // ever scanning the whole table; 0 disables the audit.
+        this.auditor = new StateAuditor(plugin, this.villagerStates, this::auditVillager,
+                (int) Math.min(Integer.MAX_VALUE, validateInterval("audit-villagers-per-tick", plugin.getConfig().getLong("audit-villagers-per-tick", 20L), 0L, 20L)));
+        if (this.auditor.isEnabled()) {
+            this.auditTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+                    plugin,
+                    SentryTaskWrapper.wrap((task) -> this.auditor.tick()),
+                    1L,
+                    1L
+            );
+        }
+        // Wheel drivers only stall on Folia, where a region stops ticking a task once its anchor
+        // chunk unloads; on Paper every driver runs on the main thread regardless.
+        if (plugin.isFolia()) {
+            this.wheelSupervisorTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+                    plugin,
+                    SentryTaskWrapper.wrap((task) -> this.timingWheel.superviseDrivers()),
+                    WHEEL_SUPERVISOR_INTERVAL_TICKS,
+                    WHEEL_SUPERVISOR_INTERVAL_TICKS
+            );
+        }
+        if (this.proximityIndex.isEnabled()) {
+            this.proximityIndexTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+                    plugin,
+                    SentryTaskWrapper.wrap((task) -> this.proximityIndex.refresh()),
+                    1L,
+                    PlayerProximityIndex.REFRESH_INTERVAL_TICKS
+            );
+        }
+        if (this.loadGovernor.isEnabled()) {
+            this.loadGovernorTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+                    plugin,
+                    SentryTaskWrapper.wrap((task) -> this.loadGovernor.sample()),
+                    LoadGovernor.SAMPLE_INTERVAL_TICKS,
+                    LoadGovernor.SAMPLE_INTERVAL_TICKS
+            );
+        }
     }
 
+    /**
+     * @return a read-only view of the lobotomized villagers
+     */
     public @NotNull Set<Villager> getLobotomized() {
-        return this.inactiveVillagers;
+        return this.villagerStates.inactive();
     }
 
+    /**
+     * @return a read-only view of the active villagers
+     */
     public @NotNull Set<Villager> getActive() {
-        return this.activeVillagers;
+        return this.villagerStates.active();
     }
 
-    // Order is remove-then-add so the brief intermediate state is "in neither set"
-    // rather than "in both" — readers seeing a momentary gap simply skip a tick.
-    private void setActive(@NotNull Villager v) {
-        synchronized (this.stateLock) {
-            this.inactiveVillagers.remove(v);
-            this.activeVillagers.add(v);
-        }
+    /**
+     * @return how many villagers are tracked, active or lobotomized; O(1)
+     */
+    public int getTrackedCount() {
+        return this.villagerStates.active().size() + this.villagerStates.inactive().size();
+    }
+
+    /**
+     * @return active and lobotomized villager counts per world name, kept up to date on every transition
+     */
+    @NotNull Map<String, VillagerStateTable.StateCounts> getCountsByWorld() {
+        return this.villagerStates.countsByWorld();
+    }
+
+    /**
+     * @return active and lobotomized villager counts per profession, kept up to date on every transition
+     */
+    @NotNull Map<String, VillagerStateTable.StateCounts> getCountsByProfession() {
+        return this.villagerStates.countsByProfession();
+    }
+
+    /**
+     * @return how many villager checks each wheel driver tick ran since this storage was created
+     */
+    @NotNull TickLoadHistogram getCheckLoad() {
+        return this.timingWheel.loadHistogram();
     }
 
-    private void setInactive(@NotNull Villager v) {
-        synchronized (this.stateLock) {
-            this.activeVillagers.remove(v);
-            this.inactiveVillagers.add(v);
+    /**
+     * @return the tracked villagers last seen in {@code chunk}, from the chunk index; a copy
+     */
+    public @NotNull List<Villager> getTrackedVillagersIn(@NotNull Chunk chunk) {
+        List<TrackedVillager> tracked = this.timingWheel.villagersIn(chunk.getWorld().getUID(), chunk.getX(), chunk.getZ());
+        List<Villager> villagers = new ArrayList<>(tracked.size());
+        for (TrackedVillager record : tracked) {
+            villagers.add(record.villager());
         }
+        return villagers;
+    }
+
+    /**
+     * @return the villager's record, or {@code null} if it isn't tracked
+     */
+    @Nullable TrackedVillager getTrackedRecord(@NotNull Villager villager) {
+        return this.villagerStates.get(villager);
+    }
+
+    /**
+     * @return how many checks reused the villager's last decision instead of evaluating the policy
+     */
+    long getDecisionsReused() {
+        return this.decisionsReused.sum();
+    }
+
+    /**
+     * @return how many checks evaluated the policy
+     */
+    long getDecisionsEvaluated() {
+        return this.decisionsEvaluated.sum();
+    }
+
+    @NotNull StateAuditor getAuditor() {
+        return this.auditor;
+    }
+
+    @NotNull LoadGovernor getLoadGovernor() {
+        return this.loadGovernor;
+    }
+
+    /**
+     * @return the pool swept chunks are evaluated on, or {@code null} if evaluation stays on the tick threads
+     */
+    @Nullable AsyncEvaluator getAsyncEvaluator() {
+        return this.asyncEvaluator;
+    }
+
+    /**
+     * @return how many tracked villagers currently sit in suspended (quiescent) chunks
+     */
+    public int getSuspendedCount() {
+        return this.timingWheel.suspendedCount();
     }
 
     /**
-     * Removes a villager from all tracking sets.
+     * @return how many chunks are currently dense enough to be swept as a whole
+     */
+    public int getSweepingChunkCount() {
+        return this.timingWheel.sweepingChunkCount();
+    }
+
+    private @NotNull TrackedVillager track(@NotNull Villager v, boolean active) {
+        return this.villagerStates.track(v, active ? VillagerStateTable.State.ACTIVE : VillagerStateTable.State.INACTIVE);
+    }
+
+    /**
+     * Removes a villager from tracking.
      *
-     * @param v the villager to remove
+     * @param tracked the record of the villager to remove
      * @return {@code true} if the villager was being tracked, {@code false} otherwise
      */
-    private boolean untrack(@NotNull Villager v) {
-        synchronized (this.stateLock) {
-            boolean wasActive = this.activeVillagers.remove(v);
-            boolean wasInactive = this.inactiveVillagers.remove(v);
-            return wasActive || wasInactive;
+    private boolean untrack(@NotNull TrackedVillager tracked) {
+        return this.villagerStates.remove(tracked) != VillagerStateTable.State.UNTRACKED;
+    }
+
+    /**
+     * @return whether the villager carries the persistent lobotomized marker; its persistent data is
+     * only read the first time, after that the record's copy is kept in step with every write
+     */
+    private boolean hasMarker(@NotNull TrackedVillager tracked) {
+        if (!tracked.markerKnown) {
+            tracked.marked = tracked.villager().getPersistentDataContainer().has(this.lobotomizedKey, PersistentDataType.BYTE);
+            tracked.markerKnown = true;
+        }
+        return tracked.marked;
+    }
+
+    private void setMarker(@NotNull TrackedVillager tracked) {
+        if (hasMarker(tracked)) {
+            return;
+        }
+        tracked.villager().getPersistentDataContainer().set(this.lobotomizedKey, PersistentDataType.BYTE, (byte) 1);
+        tracked.marked = true;
+        if (this.plugin.isDebugging()) {
+            this.logger.info("[Debug] Set persistent lobotomized marker for " + tracked.villager().getUniqueId());
         }
     }
 
+    private void clearMarker(@NotNull TrackedVillager tracked) {
+        if (!hasMarker(tracked)) {
+            return;
+        }
+        clearLobotomizedMarker(tracked.villager());
+        tracked.marked = false;
+    }
+
     /**
      * Registers a villager for active/inactive state tracking with periodic monitoring.
      *
      * If persistent lobotomized state is configured, checks whether the villager
      * carries a lobotomized marker; if so, initializes it as inactive, otherwise
-     * as active. Schedules a periodic task to monitor and potentially transition
-     * the villager between states.
+     * as active. Places the villager on the timing wheel to monitor and potentially
+     * transition it between states.
      */
     public final void addVillager(@NotNull Villager villager) {
         if (this.shuttingDown || !this.plugin.isEnabled()) {
             return;
         }
+        // A villager can arrive through its add event, its chunk's entity load and a rescan; only the
+        // first of them tracks and schedules it, so the others can't reset its place on the wheel.
+        if (this.villagerStates.isTracked(villager)) {
+            if (this.plugin.isDebugging()) {
+                this.logger.info("[Debug] Villager " + villager.getUniqueId() + " is already tracked; not adding it again");
+            }
+            return;
+        }
 
         boolean wasLobotomized = false;
         if (this.persistLobotomizedState) {
@@ -259,42 +451,116 @@ public class LobotomizeStorage {
             if (this.silentLobotomizedVillagers) {
                 villager.setSilent(true);
             }
-            setInactive(villager);
+        }
+        TrackedVillager tracked = track(villager, !wasLobotomized);
+        if (this.persistLobotomizedState) {
+            tracked.markerKnown = true;
+            tracked.marked = wasLobotomized;
+        }
 
-            if (this.plugin.isDebugging()) {
+        if (this.plugin.isDebugging()) {
+            if (wasLobotomized) {
                 this.logger.info("[Debug] Re-lobotomized villager " + villager + " (" + villager.getUniqueId() + ") on chunk load");
-            }
-        } else {
-            setActive(villager);
-
-            if (this.plugin.isDebugging()) {
+            } else {
                 this.logger.info("[Debug] Tracked villager " + villager + " (" + villager.getUniqueId() + ") as active");
             }
         }
 
         long interval = wasLobotomized ? this.inactiveCheckInterval : this.checkInterval;
-        this.scheduleVillagerTask(villager, interval);
+        this.scheduleVillagerTask(tracked, this.intervalRange(villager, interval).floor());
+    }
+
+    /**
+     * Queues the villagers of a freshly loaded chunk for batched admission.
+     */
+    public void admitChunk(@NotNull Chunk chunk, @NotNull List<Villager> villagers) {
+        if (this.shuttingDown || villagers.isEmpty()) {
+            return;
+        }
+        this.admissionQueue.enqueue(chunk.getWorld(), chunk.getX(), chunk.getZ(), villagers);
+    }
+
+    /**
+     * @return how many villagers from loaded chunks are still waiting to be admitted
+     */
+    public int getQueuedAdmissionCount() {
+        return this.admissionQueue.queuedVillagers();
+    }
+
+    /**
+     * Admits one chunk's worth of villagers in one go: reads every lobotomized marker in a single
+     * pass, then moves them all into the state table and onto the wheel. Villagers that are already
+     * tracked, or no longer valid because their chunk unloaded while they were queued, are skipped. Runs on the region that owns the chunk.
+     */
+    private void admitVillagers(@NotNull List<Villager> villagers) {
+        if (this.shuttingDown || !this.plugin.isEnabled()) {
+            return;
+        }
+        List<Villager> admitted = new ArrayList<>(villagers.size());
+        boolean[] lobotomized = new boolean[villagers.size()];
+        for (Villager villager : villagers) {
+            if (!villager.isValid() || villager.isDead()
+                    || this.villagerStates.isTracked(villager)) {
+                continue;
+            }
+            lobotomized[admitted.size()] = this.persistLobotomizedState
+                    && villager.getPersistentDataContainer().has(this.lobotomizedKey, PersistentDataType.BYTE);
+            admitted.add(villager);
+        }
+        if (admitted.isEmpty()) {
+            return;
+        }
+
+        int relobotomized = 0;
+        for (int i = 0; i < admitted.size(); i++) {
+            if (!lobotomized[i]) {
+                continue;
+            }
+            Villager villager = admitted.get(i);
+            villager.setAware(false);
+            if (this.silentLobotomizedVillagers) {
+                villager.setSilent(true);
+            }
+            relobotomized++;
+        }
+
+        for (int i = 0; i < admitted.size(); i++) {
+            Villager villager = admitted.get(i);
+            TrackedVillager tracked = track(villager, !lobotomized[i]);
+            if (this.persistLobotomizedState) {
+                tracked.markerKnown = true;
+                tracked.marked = lobotomized[i];
+            }
+            long interval = lobotomized[i] ? this.inactiveCheckInterval : this.checkInterval;
+            this.scheduleVillagerTask(tracked, this.intervalRange(villager, interval).floor());
+        }
+
+        if (this.plugin.isDebugging()) {
+            Location location = admitted.get(0).getLocation();
+            this.logger.info("[Debug] Admitted " + admitted.size() + " villager(s) from chunk " + (location.getBlockX() >> 4)
+                    + ", " + (location.getBlockZ() >> 4) + " (" + relobotomized + " re-lobotomized)");
+        }
     }
 
     /**
      * Removes a villager from tracking and reactivates it if it was previously lobotomized.
      *
-     * Cancels the villager's scheduled processing task and removes it from the tracking sets.
-     * If the villager was inactive, restores awareness and optionally sound.
+     * Takes the villager off the timing wheel and removes it from the tracking sets.
+     * If the villager was inactive, restores awareness and optionally sound. Villagers leaving with
+     * an unloading chunk have already been untracked by {@link #unloadChunk}, so this is a no-op for them.
      */
     public final void removeVillager(@NotNull Villager villager) {
-        boolean wasInactive;
-        boolean wasActive;
-        // Cancel the per-villager task and drop set membership atomically (paired with
-        // scheduleVillagerTask) so a concurrent (re)schedule can't leave a live orphan task.
-        synchronized (this.stateLock) {
-            ScheduledTask task = this.villagerTasks.remove(villager.getUniqueId());
-            this.villagerTaskIntervals.remove(villager.getUniqueId());
-            this.safeCancel(task);
-            wasActive = this.activeVillagers.remove(villager);
-            wasInactive = this.inactiveVillagers.remove(villager);
-        }
-        boolean removed = wasActive || wasInactive;
+        // Untrack before cancelling (paired with scheduleVillagerTask) so a concurrent (re)schedule
+        // can't leave a live orphan entry.
+        TrackedVillager tracked = this.villagerStates.get(villager);
+        VillagerStateTable.State previous = VillagerStateTable.State.UNTRACKED;
+        if (tracked != null) {
+            previous = this.villagerStates.remove(tracked);
+            this.timingWheel.cancel(tracked);
+        }
+        boolean wasActive = previous == VillagerStateTable.State.ACTIVE;
+        boolean wasInactive = previous == VillagerStateTable.State.INACTIVE;
+        boolean removed = previous != VillagerStateTable.State.UNTRACKED;
 
         if (wasInactive) {
             // Use Paper's EntityScheduler for thread safety
@@ -315,6 +581,44 @@ public class LobotomizeStorage {
         }
     }
 
+    /**
+     * Stops tracking the villagers of a chunk that is unloading, as one batch, before they leave the
+     * world. A lobotomized villager carrying the persistent marker is saved as it is and re-admitted
+     * lobotomized when the chunk loads again; waking it here would only have it saved awake and its
+     * brain started up again on load. Unmarked ones (persist-lobotomized-state off) are woken, as on
+     * any other removal. Runs on the region that owns the chunk.
+     */
+    public void unloadChunk(@NotNull Chunk chunk, @NotNull List<Villager> villagers) {
+        int untracked = 0;
+        int keptAsleep = 0;
+        for (Villager villager : villagers) {
+            TrackedVillager tracked = this.villagerStates.get(villager);
+            if (tracked == null) {
+                continue;
+            }
+            // Same order as removeVillager(): untrack before cancelling.
+            VillagerStateTable.State previous = this.villagerStates.remove(tracked);
+            if (previous == VillagerStateTable.State.UNTRACKED) {
+                continue;
+            }
+            this.timingWheel.cancel(tracked);
+            untracked++;
+            if (previous != VillagerStateTable.State.INACTIVE) {
+                continue;
+            }
+            // Without the marker the villager would load unaware but be admitted as active.
+            if (this.persistLobotomizedState && hasMarker(tracked)) {
+                keptAsleep++;
+            } else {
+                wakeVillager(villager);
+            }
+        }
+        if (this.plugin.isDebugging() && untracked > 0) {
+            this.logger.info("[Debug] Untracked " + untracked + " villager(s) from unloading chunk " + chunk.getX() + ", " + chunk.getZ()
+                    + " (" + keptAsleep + " saved lobotomized)");
+        }
+    }
+
     /**
      * Clears the persistent lobotomized marker from a villager.
      *
@@ -367,72 +671,365 @@ public class LobotomizeStorage {
      *                  and the persistent lobotomized marker is relied upon for re-evaluation on chunk load.
      */
     public final void flush(boolean reloading) {
+        stopTasks();
+
+        // Wake lobotomized villagers before shutdown so they aren't left lobotomized forever if the plugin
+        // is removed; active ones are already awake. The wheel refuses new entries once shut down, so a
+        // schedule racing this can't leave an orphan.
+        this.timingWheel.shutdown();
+        List<Villager> toWake = this.villagerStates.drain(VillagerStateTable.State.INACTIVE);
+
+        if (!reloading) {
+            wakeForShutdown(toWake);
+            return;
+        }
+        for (Villager villager : toWake) {
+            if (this.plugin.isDebugging()) {
+                this.logger.info("Un-lobotomizing Villager " + villager.getUniqueId());
+            }
+            // Plugin stays enabled: the entity scheduler will run, so this works cross-region
+            // without throwing a thread-ownership exception per villager.
+            try {
+                villager.getScheduler().run(this.plugin, SentryTaskWrapper.wrap((task) -> wakeVillager(villager)), null);
+            } catch (Exception e) {
+                this.logger.log(java.util.logging.Level.WARNING, "Failed to schedule un-lobotomize for villager " + villager.getUniqueId() + " during reload: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Stops this storage's background work. In-flight callbacks see {@code shuttingDown} and bail out.
+     */
+    private void stopTasks() {
         // Prevent new tasks from being scheduled past this point
         this.shuttingDown = true;
 
         this.safeCancel(this.chunkProcessingTask);
-        this.safeCancel(this.watchdogTask);
+        this.safeCancel(this.auditTask);
+        this.safeCancel(this.wheelSupervisorTask);
+        this.safeCancel(this.loadGovernorTask);
+        this.safeCancel(this.proximityIndexTask);
+        this.safeCancel(this.admissionTask);
+        if (this.asyncEvaluator != null) {
+            this.asyncEvaluator.shutdown();
+        }
+    }
 
-        // Wake all villagers before shutdown so they aren't left lobotomized forever if the plugin is removed
-        // Take a snapshot of the union under stateLock — covers any villager stuck in both sets.
-        // Cancel and clear per-villager tasks under the same lock that scheduleVillagerTask holds, so a
-        // concurrent schedule can't install an orphan task after we clear (it re-checks shuttingDown there).
-        List<Villager> toFlush;
-        synchronized (this.stateLock) {
-            for (ScheduledTask task : this.villagerTasks.values()) {
-                this.safeCancel(task);
+    /**
+     * Hands every tracked villager over to the storage that replaces this one on reload, in the
+     * state it is in, without waking anyone. If the new config decides like the old one, villagers
+     * keep the interval they had backed off to; otherwise they start at their base interval so the
+     * new settings reach them within one check. Lobotomized villagers only get touched when the
+     * silence or marker settings changed.
+     *
+     * @param next the storage built from the reloaded config
+     * @return how many villagers were handed over
+     */
+    public final int handOverTo(@NotNull LobotomizeStorage next) {
+        stopTasks();
+        boolean policyChanged = !this.activityPolicy.decidesLike(next.activityPolicy);
+        boolean silenceChanged = this.silentLobotomizedVillagers != next.silentLobotomizedVillagers;
+        boolean markerChanged = this.persistLobotomizedState != next.persistLobotomizedState;
+        int[] handedOver = {0};
+        this.villagerStates.drain((tracked, state) -> {
+            long interval = policyChanged ? 0L : this.timingWheel.intervalOf(tracked);
+            if (next.adopt(tracked.villager(), state == VillagerStateTable.State.ACTIVE, interval, silenceChanged, markerChanged)) {
+                handedOver[0]++;
             }
-            this.villagerTasks.clear();
-            this.villagerTaskIntervals.clear();
+        });
+        this.timingWheel.shutdown();
+        if (this.plugin.isDebugging()) {
+            this.logger.info("[Debug] Handed " + handedOver[0] + " villager(s) over to the reloaded storage"
+                    + (policyChanged ? "; activity settings changed, re-evaluating them at their base interval" : ""));
+        }
+        return handedOver[0];
+    }
+
+    /**
+     * Starts tracking a villager handed over from the previous storage, keeping its state.
+     *
+     * @param previousInterval the interval it was checked at before, or {@code 0} to start at the base interval
+     * @return {@code false} if the villager is gone
+     */
+    private boolean adopt(@NotNull Villager villager, boolean active, long previousInterval, boolean silenceChanged, boolean markerChanged) {
+        if (!villager.isValid() || villager.isDead()) {
+            return false;
+        }
+        TrackedVillager tracked = track(villager, active);
+        IntervalRange range = this.intervalRange(villager, active ? this.checkInterval : this.inactiveCheckInterval);
+        long interval = previousInterval <= 0L ? range.floor() : Math.clamp(previousInterval, range.floor(), range.ceiling());
+        this.scheduleVillagerTask(tracked, interval);
+
+        if (!active) {
+            refreshLobotomizedTraits(tracked, silenceChanged, markerChanged);
+        }
+        return true;
+    }
+
+    /**
+     * Re-applies the silence and persistent marker settings to a lobotomized villager on its own
+     * thread, for whichever of the two changed.
+     */
+    private void refreshLobotomizedTraits(@NotNull TrackedVillager tracked, boolean silenceChanged, boolean markerChanged) {
+        if (!silenceChanged && !markerChanged) {
+            return;
+        }
+        Villager villager = tracked.villager();
+        try {
+            villager.getScheduler().run(this.plugin, SentryTaskWrapper.wrap((task) -> {
+                if (tracked.state() != VillagerStateTable.State.INACTIVE) {
+                    return;
+                }
+                if (silenceChanged) {
+                    villager.setSilent(this.silentLobotomizedVillagers);
+                }
+                if (markerChanged) {
+                    if (this.persistLobotomizedState) {
+                        setMarker(tracked);
+                    } else {
+                        clearMarker(tracked);
+                    }
+                }
+            }), null);
+        } catch (IllegalPluginAccessException e) {
+            // plugin disabling
+        }
+    }
 
-            toFlush = new ArrayList<>(this.inactiveVillagers.size() + this.activeVillagers.size());
-            toFlush.addAll(this.inactiveVillagers);
-            for (Villager v : this.activeVillagers) {
-                if (!this.inactiveVillagers.contains(v)) toFlush.add(v);
+    /**
+     * Applies a config key that was just changed (by {@code /lobotomy config set}) to this storage in
+     * place, touching only the villagers the key can affect: a changed name list re-checks named
+     * villagers, other activity settings re-check everyone, interval changes only move villagers
+     * now checked outside their allowed range, and silence/marker changes only touch lobotomized
+     * villagers. Re-checked villagers come due within their base interval; nobody is woken first.
+     *
+     * @param key the config key that changed; the plugin's config must already hold the new value
+     * @return how many villagers were touched, or {@code -1} if the key only takes effect on reload
+     */
+    public int applyConfigChange(@NotNull String key) {
+        ConfigKeyScope scope = ConfigKeyScope.of(key);
+        if (scope == null || this.shuttingDown) {
+            return -1;
+        }
+        int touched = switch (scope) {
+            case NAMED_VILLAGERS, ALL_VILLAGERS -> {
+                VillagerActivityPolicy policy = readActivityPolicy();
+                if (policy.decidesLike(this.activityPolicy)) {
+                    yield 0;
+                }
+                this.activityPolicy = policy;
+                yield recheck(scope == ConfigKeyScope.NAMED_VILLAGERS);
             }
-            this.inactiveVillagers.clear();
-            this.activeVillagers.clear();
+            case INTERVALS -> {
+                readCheckIntervals();
+                yield rescheduleOutOfRange();
+            }
+            case LOBOTOMIZED_VILLAGERS -> {
+                boolean silent = this.plugin.getConfig().getBoolean("silent-lobotomized-villagers");
+                boolean persist = this.plugin.getConfig().getBoolean("persist-lobotomized-state", true);
+                boolean silenceChanged = silent != this.silentLobotomizedVillagers;
+                boolean markerChanged = persist != this.persistLobotomizedState;
+                this.silentLobotomizedVillagers = silent;
+                this.persistLobotomizedState = persist;
+                if (!silenceChanged && !markerChanged) {
+                    yield 0;
+                }
+                int[] count = {0};
+                this.villagerStates.forEach((tracked, state) -> {
+                    if (state == VillagerStateTable.State.INACTIVE) {
+                        refreshLobotomizedTraits(tracked, silenceChanged, markerChanged);
+                        count[0]++;
+                    }
+                });
+                yield count[0];
+            }
+            case NO_VILLAGERS -> {
+                readRestockIntervals();
+                yield 0;
+            }
+        };
+        if (this.plugin.isDebugging()) {
+            this.logger.info("[Debug] Applied config change to '" + key + "' live; touched " + touched + " villager(s)");
         }
+        return touched;
+    }
 
-        // On a true shutdown the scheduler may not run, so cross-region (Folia) villagers can't be
-        // reliably woken; warn once. The persistent marker (when enabled) re-tracks them on next
-        // load so the normal check loop can wake them once their chunk is active again.
-        if (!reloading && this.plugin.isFolia() && !toFlush.isEmpty()) {
-            this.logger.info("Some Villagers may remain lobotomized after shutdown until their chunk next loads. "
-                    + "Enable persist-lobotomized-state so they are re-evaluated and woken once their chunk reloads.");
+    /**
+     * Brings the next check of tracked villagers forward to their base interval, resuming suspended
+     * chunks and hurrying swept ones, so a changed activity setting reaches them within one check.
+     * Runs on each villager's own thread, since it reads the villager's name and position.
+     *
+     * @param namedOnly only re-check villagers with a custom name
+     * @return how many villagers were queued for a re-check; with {@code namedOnly}, those that had a
+     * custom name at their last check (one not checked yet is due at its base interval anyway)
+     */
+    private int recheck(boolean namedOnly) {
+        int[] count = {0};
+        this.villagerStates.forEach((tracked, state) -> {
+            if (namedOnly && tracked.lastName().isEmpty()) {
+                return;
+            }
+            if (onVillagerThread(tracked, () -> {
+                if (namedOnly && tracked.name().isEmpty()) {
+                    return;
+                }
+                long floor = this.intervalRange(tracked.villager(), baseIntervalOf(tracked.state())).floor();
+                this.timingWheel.resume(tracked);
+                this.timingWheel.reschedule(tracked, floor);
+                this.timingWheel.hurrySweep(tracked, floor);
+            })) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Moves villagers whose current interval falls outside the range the changed intervals allow
+     * back into it. Everyone else keeps their slot; the new intervals reach them on their next check.
+     * The range depends on where each villager stands, so each is looked at on its own thread.
+     *
+     * @return how many villagers were queued to be looked at
+     */
+    private int rescheduleOutOfRange() {
+        int[] count = {0};
+        this.villagerStates.forEach((tracked, state) -> {
+            if (onVillagerThread(tracked, () -> {
+                long current = this.timingWheel.intervalOf(tracked);
+                if (current <= 0L) {
+                    return;
+                }
+                IntervalRange range = this.intervalRange(tracked.villager(), baseIntervalOf(tracked.state()));
+                if (current >= range.floor() && current <= range.ceiling()) {
+                    return;
+                }
+                long interval = Math.clamp(current, range.floor(), range.ceiling());
+                this.rescheduleVillagerTask(tracked, interval);
+                this.timingWheel.hurrySweep(tracked, interval);
+            })) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Runs {@code action} on the thread that owns a tracked villager, if it is still tracked by then.
+     *
+     * @return {@code false} if the villager is gone or the plugin is disabling
+     */
+    private boolean onVillagerThread(@NotNull TrackedVillager tracked, @NotNull Runnable action) {
+        try {
+            return tracked.villager().getScheduler().run(this.plugin, SentryTaskWrapper.wrap((task) -> {
+                if (!this.shuttingDown && tracked.isTracked()) {
+                    action.run();
+                }
+            }), null) != null;
+        } catch (IllegalPluginAccessException e) {
+            // plugin disabling
+            return false;
         }
+    }
 
-        for (Villager villager : toFlush) {
-            if (this.plugin.isDebugging()) {
-                this.logger.info("Un-lobotomizing Villager " + villager.getUniqueId());
+    private long baseIntervalOf(@NotNull VillagerStateTable.State state) {
+        return state == VillagerStateTable.State.ACTIVE ? this.checkInterval : this.inactiveCheckInterval;
+    }
+
+    /**
+     * Wakes villagers while the plugin shuts down, one chunk at a time, within
+     * {@code shutdown-wake-deadline-ms}. Chunks the shutting-down thread may touch are woken right
+     * here; the rest are handed to their regions in parallel and waited on until the deadline.
+     * Whatever is still asleep by then keeps its persistent marker, so it is re-evaluated (and woken
+     * if it should be) when its chunk next loads with the plugin installed.
+     */
+    private void wakeForShutdown(@NotNull List<Villager> villagers) {
+        if (villagers.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + this.shutdownWakeDeadlineMillis * 1_000_000L;
+        Map<ChunkRef, List<Villager>> byChunk = new LinkedHashMap<>();
+        for (Villager villager : villagers) {
+            Location location = villager.getLocation();
+            byChunk.computeIfAbsent(new ChunkRef(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4),
+                    (chunk) -> new ArrayList<>()).add(villager);
+        }
+
+        AtomicInteger woken = new AtomicInteger();
+        Map<ChunkRef, List<Villager>> elsewhere = new LinkedHashMap<>();
+        for (Map.Entry<ChunkRef, List<Villager>> chunk : byChunk.entrySet()) {
+            if (System.nanoTime() >= deadline) {
+                break;
             }
+            List<Villager> remaining = wakeChunk(chunk.getValue(), deadline, woken);
+            if (!remaining.isEmpty()) {
+                elsewhere.put(chunk.getKey(), remaining);
+            }
+        }
 
-            if (reloading) {
-                // Plugin stays enabled: the entity scheduler will run, so this works cross-region
-                // without throwing a thread-ownership exception per villager.
+        if (!elsewhere.isEmpty() && System.nanoTime() < deadline) {
+            CountDownLatch pending = new CountDownLatch(elsewhere.size());
+            for (Map.Entry<ChunkRef, List<Villager>> chunk : elsewhere.entrySet()) {
+                ChunkRef ref = chunk.getKey();
                 try {
-                    villager.getScheduler().run(this.plugin, SentryTaskWrapper.wrap((task) -> wakeVillager(villager)), null);
+                    Bukkit.getRegionScheduler().run(this.plugin, ref.world(), ref.x(), ref.z(), SentryTaskWrapper.wrap((task) -> {
+                        try {
+                            wakeChunk(chunk.getValue(), deadline, woken);
+                        } finally {
+                            pending.countDown();
+                        }
+                    }));
                 } catch (Exception e) {
-                    this.logger.log(java.util.logging.Level.WARNING, "Failed to schedule un-lobotomize for villager " + villager.getUniqueId() + " during reload: " + e.getMessage(), e);
+                    pending.countDown();
                 }
-                continue;
             }
+            try {
+                pending.await(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int wokenCount = woken.get();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        int left = villagers.size() - wokenCount;
+        if (left <= 0) {
+            if (this.plugin.isDebugging()) {
+                this.logger.info("[Debug] Woke " + wokenCount + " lobotomized villager(s) across " + byChunk.size() + " chunk(s) in " + elapsedMillis + " ms");
+            }
+            return;
+        }
+        this.logger.info("Woke " + wokenCount + " lobotomized villager(s) in " + elapsedMillis + " ms; " + left
+                + " could not be woken within shutdown-wake-deadline-ms and stay lobotomized until their chunk next loads"
+                + (this.persistLobotomizedState ? "." : ". Enable persist-lobotomized-state so they are re-evaluated and woken once their chunk reloads."));
+    }
 
+    /**
+     * Wakes the villagers of one chunk on the current thread until the deadline passes or the
+     * current thread turns out not to own them.
+     *
+     * @return the villagers that were not woken
+     */
+    private List<Villager> wakeChunk(@NotNull List<Villager> villagers, long deadline, @NotNull AtomicInteger woken) {
+        for (int i = 0; i < villagers.size(); i++) {
+            Villager villager = villagers.get(i);
+            if (System.nanoTime() >= deadline) {
+                return villagers.subList(i, villagers.size());
+            }
             try {
-                // During shutdown, try setting directly first since the scheduler might not run.
                 wakeVillager(villager);
+                woken.incrementAndGet();
             } catch (IllegalStateException e) {
-                // If we get a thread violation, try using the entity scheduler as a last resort.
-                try {
-                    villager.getScheduler().run(this.plugin, SentryTaskWrapper.wrap((task) -> wakeVillager(villager)), null);
-                } catch (Exception schedulerException) {
-                    // If both fail, log warning but don't crash the shutdown
-                    this.logger.log(java.util.logging.Level.WARNING, "Failed to un-lobotomize villager " + villager.getUniqueId() + " during shutdown: " + e.getMessage(), e);
-                }
+                // Owned by a region other than this thread; villagers of one chunk share an owner.
+                return villagers.subList(i, villagers.size());
             } catch (Exception e) {
                 this.logger.log(java.util.logging.Level.WARNING, "Failed to un-lobotomize villager " + villager.getUniqueId() + " during shutdown: " + e.getMessage(), e);
             }
         }
+        return List.of();
+    }
+
+    private record ChunkRef(World world, int x, int z) {
     }
 
     /**
@@ -448,54 +1045,300 @@ public class LobotomizeStorage {
     }
     
     
+    /**
+     * Evaluates every villager of a chunk in sweep mode with one call of the policy over the chunk's
+     * villagers laid out as a {@link VillagerBatch}, with the same settle/unsettle bookkeeping as
+     * {@link #processVillagerSafely(TrackedVillager)}, and picks the chunk's next sweep interval: back
+     * to the base interval after any transition, otherwise backed off like a single villager would be.
+     * <p>
+     * Each villager is captured here on the region thread. Villagers whose last decision still holds
+     * are not evaluated, and a chunk where that goes for all of them is applied right away. Without
+     * an async pool the rest are evaluated against the live blocks through one shared cache.
+     * Otherwise the chunks their checks read are snapshotted, the policy runs on the pool, and the
+     * decisions are applied back on the region that owns the chunk; a decision that read a block
+     * whose collision the snapshot could only estimate is made again there against the live blocks,
+     * so it always matches a check on the region thread. Since those decisions arrive
+     * later, the next sweep is backed off as if nothing changed; a transition pulls it forward
+     * again. When the pool's queue is full the batch is evaluated and applied right here instead.
+     */
+    private long sweepChunk(@NotNull List<TrackedVillager> villagers, long interval) {
+        if (this.shuttingDown) {
+            return interval;
+        }
+        World world = villagers.get(0).villager().getWorld();
+        SnapshotGrid snapshots = this.asyncEvaluator != null ? new SnapshotGrid(world, this.chunkSnapshots) : null;
+        SweepBatch batch = captureSweep(world, villagers, snapshots);
+        if (batch.villagers.isEmpty()) {
+            return interval;
+        }
+        if (batch.evaluating.size() == 0 || snapshots == null) {
+            if (batch.evaluating.size() > 0) {
+                evaluate(batch, sweepGridOf(world));
+            }
+            boolean transitioned = this.applySweep(batch, false);
+            return nextSweepInterval(batch.villagers.get(0).villager(), batch.anyActive, transitioned, interval);
+        }
+
+        Location anchor = batch.villagers.get(0).villager().getLocation();
+        int chunkX = anchor.getBlockX() >> 4;
+        int chunkZ = anchor.getBlockZ() >> 4;
+        boolean queued = this.asyncEvaluator.submit(() -> {
+            evaluate(batch, snapshots);
+            try {
+                Bukkit.getRegionScheduler().run(this.plugin, world, chunkX, chunkZ,
+                        SentryTaskWrapper.wrap((task) -> {
+                            // Lands in a later tick than the sweep; count it against that tick's budget.
+                            long start = System.nanoTime();
+                            this.applySweep(batch, true);
+                            this.evaluationBudget.charge(System.nanoTime() - start);
+                        }));
+            } catch (IllegalPluginAccessException e) {
+                // Plugin disabling; the decisions are dropped with the storage.
+            }
+        });
+        if (!queued) {
+            evaluate(batch, snapshots);
+            boolean transitioned = this.applySweep(batch, false);
+            return nextSweepInterval(batch.villagers.get(0).villager(), batch.anyActive, transitioned, interval);
+        }
+        return nextSweepInterval(batch.villagers.get(0).villager(), batch.anyWasActive, false, interval);
+    }
+
+    private long nextSweepInterval(@NotNull Villager representative, boolean anyActive, boolean anyTransitioned, long interval) {
+        IntervalRange range = this.intervalRange(representative, anyActive ? this.checkInterval : this.inactiveCheckInterval);
+        if (anyTransitioned) {
+            return range.floor();
+        }
+        return Math.max(range.floor(), interval > range.ceiling() / 2 ? range.ceiling() : interval * 2);
+    }
+
+    /**
+     * Captures the villagers of a sweep on the region thread. Gone and untracked villagers are taken
+     * off the wheel; the rest either have their last decision recalled or are added to the batch's
+     * {@code evaluating} columns.
+     *
+     * @param snapshots where to snapshot the chunks evaluated villagers read, or {@code null} when
+     *                  they will be evaluated against the live blocks
+     */
+    private SweepBatch captureSweep(@NotNull World world, @NotNull List<TrackedVillager> villagers, @Nullable SnapshotGrid snapshots) {
+        UUID worldId = world.getUID();
+        SweepBatch batch = new SweepBatch(villagers.size(), this.activityPolicy);
+        for (TrackedVillager tracked : villagers) {
+            Villager villager = tracked.villager();
+            if (!villager.isValid() || villager.isDead()) {
+                this.timingWheel.cancel(tracked);
+                untrack(tracked);
+                continue;
+            }
+            VillagerStateTable.State state = tracked.state();
+            if (state == VillagerStateTable.State.UNTRACKED) {
+                this.timingWheel.cancel(tracked);
+                continue;
+            }
+            Location location = villager.getLocation().add(0.0F, 0.51, 0.0F);
+            int blockX = location.getBlockX();
+            int blockY = location.getBlockY();
+            int blockZ = location.getBlockZ();
+            if (!world.isChunkLoaded(blockX >> 4, blockZ >> 4)) {
+                continue;
+            }
+            int i = batch.villagers.size();
+            int flags = inputFlagsOf(tracked, batch.policy);
+            int experience = villager.getVillagerExperience();
+            // Read before the snapshot, so a change racing it makes the next check miss rather than hit.
+            batch.versions[i] = this.chunkVersions.versionOf(worldId, blockX >> 4, blockZ >> 4);
+            if (tracked.recalls(flags, experience, blockX, blockY, blockZ, batch.versions[i], batch.policy)) {
+                this.decisionsReused.increment();
+                batch.evaluatedIndex[i] = -1;
+                batch.decisions[i] = tracked.lastDecision();
+            } else {
+                this.decisionsEvaluated.increment();
+                if (snapshots != null) {
+                    snapshots.captureAround(world, blockX, blockZ);
+                }
+                int j = batch.evaluating.add(flags, experience, blockX, blockY, blockZ);
+                batch.evaluatedIndex[i] = j;
+                batch.evaluatedAt[j] = i;
+            }
+            batch.wasActive[i] = state == VillagerStateTable.State.ACTIVE;
+            batch.anyWasActive |= batch.wasActive[i];
+            batch.villagers.add(tracked);
+        }
+        return batch;
+    }
+
+    /**
+     * The villagers of one sweep as captured, and the decisions made for them. Each array is indexed
+     * like {@code villagers}; recalled villagers have their decision filled in at capture. The rest
+     * are laid out in {@code evaluating}, where the policy decides them in one pass, and
+     * {@code evaluatedIndex} and {@code evaluatedAt} map between the two indexes. The batch's
+     * columns are also what each evaluated villager's decision is remembered by.
+     */
+    private static final class SweepBatch {
+        final List<TrackedVillager> villagers;
+        final long[] versions;
+        final boolean[] wasActive;
+        final boolean[] decisions;
+        // Index in evaluating, or -1 for a recalled decision.
+        final int[] evaluatedIndex;
+        final VillagerActivityPolicy policy;
+        final VillagerBatch evaluating;
+        final int[] evaluatedAt;
+        // Whether the decision was made from estimated passability and must be verified live.
+        final boolean[] estimated;
+        boolean anyWasActive;
+        // Whether any villager the sweep was applied to ended up active.
+        boolean anyActive;
+
+        SweepBatch(int capacity, @NotNull VillagerActivityPolicy policy) {
+            this.villagers = new ArrayList<>(capacity);
+            this.versions = new long[capacity];
+            this.wasActive = new boolean[capacity];
+            this.decisions = new boolean[capacity];
+            this.evaluatedIndex = new int[capacity];
+            this.policy = policy;
+            this.evaluating = new VillagerBatch(policy, capacity);
+            this.evaluatedAt = new int[capacity];
+            this.estimated = new boolean[capacity];
+        }
+    }
+
+    private static void evaluate(@NotNull SweepBatch batch, @NotNull BlockGrid grid) {
+        boolean[] decided = new boolean[batch.evaluating.size()];
+        batch.policy.shouldBeActive(batch.evaluating, grid, decided);
+        for (int j = 0; j < decided.length; j++) {
+            batch.decisions[batch.evaluatedAt[j]] = decided[j];
+        }
+    }
+
+    /**
+     * Evaluates a batch against chunk snapshots one villager at a time, noting which decisions read
+     * a block whose passability the snapshots could only estimate.
+     */
+    private static void evaluate(@NotNull SweepBatch batch, @NotNull SnapshotGrid grid) {
+        VillagerBatch evaluating = batch.evaluating;
+        for (int j = 0; j < evaluating.size(); j++) {
+            int i = batch.evaluatedAt[j];
+            grid.clearReadEstimate();
+            batch.decisions[i] = batch.policy.shouldBeActive(evaluating.flags(j), evaluating.experience(j),
+                    evaluating.blockX(j), evaluating.blockY(j), evaluating.blockZ(j), grid);
+            batch.estimated[i] = grid.readEstimate();
+        }
+    }
+
+    /**
+     * Applies the decisions of a sweep. Villagers that changed state since they were captured, or are
+     * now owned by another region, are left for their next check.
+     *
+     * @param hurry whether to pull the chunk's next sweep forward to the base interval if any
+     *              villager transitioned
+     * @return {@code true} if any villager transitioned
+     */
+    private boolean applySweep(@NotNull SweepBatch batch, boolean hurry) {
+        if (this.shuttingDown) {
+            return false;
+        }
+        boolean anyTransitioned = false;
+        boolean anyActive = false;
+        TrackedVillager representative = null;
+        BlockGrid live = null;
+        for (int i = 0; i < batch.villagers.size(); i++) {
+            TrackedVillager tracked = batch.villagers.get(i);
+            Villager villager = tracked.villager();
+            if (!Bukkit.isOwnedByCurrentRegion(villager) || !villager.isValid() || villager.isDead()) {
+                continue;
+            }
+            VillagerStateTable.State state = tracked.state();
+            boolean wasActive = batch.wasActive[i];
+            if (state == VillagerStateTable.State.UNTRACKED || (state == VillagerStateTable.State.ACTIVE) != wasActive) {
+                continue;
+            }
+            representative = tracked;
+            boolean decision = batch.decisions[i];
+            int j = batch.evaluatedIndex[i];
+            if (batch.estimated[i]) {
+                // Read a block the snapshot could only guess the collision of; decide it as a
+                // check on this thread would.
+                if (live == null) {
+                    live = sweepGridOf(villager.getWorld());
+                }
+                decision = batch.policy.shouldBeActive(batch.evaluating.flags(j), batch.evaluating.experience(j),
+                        batch.evaluating.blockX(j), batch.evaluating.blockY(j), batch.evaluating.blockZ(j), live);
+            }
+            if (j >= 0) {
+                tracked.remember(batch.evaluating, j, batch.versions[i], batch.policy, decision);
+            }
+            try {
+                boolean transitioned = this.applyDecision(tracked, wasActive, decision);
+                if (transitioned || wasActive) {
+                    this.timingWheel.unsettle(tracked);
+                } else {
+                    this.timingWheel.settle(tracked, this.quiescentChunkChecks);
+                }
+                anyTransitioned |= transitioned;
+                anyActive |= transitioned != wasActive;
+            } catch (IllegalStateException e) {
+                if (this.plugin.isDebugging()) {
+                    this.logger.warning("Skipping villager processing for " + villager.getUniqueId() + " due to state change: " + e.getMessage());
+                }
+            }
+        }
+        batch.anyActive = anyActive;
+        if (hurry && anyTransitioned) {
+            this.timingWheel.hurrySweep(representative, nextSweepInterval(representative.villager(), anyActive, true, 0L));
+        }
+        return anyTransitioned;
+    }
+
     /**
      * Safely processes and potentially transitions a villager between active and inactive states.
      *
      * Validates the villager, checks its membership in the tracked sets, and evaluates whether
-     * it should toggle state. If a state transition occurs, reschedules the villager's periodic
-     * task with the appropriate check interval.
+     * it should toggle state. If a state transition occurs, moves the villager to the wheel slot
+     * for the appropriate check interval.
      */
-    private void processVillagerSafely(@NotNull Villager villager) {
+    private void processVillagerSafely(@NotNull TrackedVillager tracked) {
         // After flush()/reload swap, an old storage instance can still have in-flight callbacks on
         // other region threads. Bail out promptly so we don't mutate the old, orphaned sets or
         // reschedule tasks via the dead instance while the new instance is taking over.
         if (this.shuttingDown) {
             return;
         }
+        Villager villager = tracked.villager();
         try {
             if (!villager.isValid() || villager.isDead()) {
-                ScheduledTask task = this.villagerTasks.remove(villager.getUniqueId());
-                this.villagerTaskIntervals.remove(villager.getUniqueId());
-                this.safeCancel(task);
-                untrack(villager);
+                this.timingWheel.cancel(tracked);
+                untrack(tracked);
                 return;
             }
 
-            boolean isActive = this.activeVillagers.contains(villager);
-            boolean isInactive = this.inactiveVillagers.contains(villager);
+            VillagerStateTable.State state = tracked.state();
 
             // Skip if villager is not tracked
-            if (!isActive && !isInactive) {
-                // Cancel the task since villager is no longer tracked
-                ScheduledTask task = this.villagerTasks.remove(villager.getUniqueId());
-                this.villagerTaskIntervals.remove(villager.getUniqueId());
-                if (task != null && !task.isCancelled()) {
-                    task.cancel();
-                }
+            if (state == VillagerStateTable.State.UNTRACKED) {
+                // Take it off the wheel since villager is no longer tracked
+                this.timingWheel.cancel(tracked);
                 return;
             }
+            boolean isActive = state == VillagerStateTable.State.ACTIVE;
 
-            if (isActive && isInactive) {
-                this.logger.info("[Watchdog] processVillagerSafely saw villager "
-                        + villager.getUniqueId() + " in both sets; reconciling.");
-                reconcile(villager);
-                return;
-            }
-
-            boolean transitioned = this.processVillager(villager, isActive);
+            boolean transitioned = this.processVillager(tracked, isActive);
             if (transitioned) {
+                this.timingWheel.unsettle(tracked);
                 long nextInterval = isActive ? this.inactiveCheckInterval : this.checkInterval;
-                this.rescheduleVillagerTask(villager, nextInterval);
+                this.rescheduleVillagerTask(tracked, this.intervalRange(villager, nextInterval).floor());
+            } else {
+                // Same answer as last time: check this villager less often until something changes,
+                // within whatever range its distance to the nearest player allows.
+                IntervalRange range = this.intervalRange(villager, isActive ? this.checkInterval : this.inactiveCheckInterval);
+                this.timingWheel.backOff(tracked, range.floor(), range.ceiling());
+                // Lobotomized villagers can't walk off, so with no block changes their answer won't
+                // change either; active ones can wander into a trap at any time.
+                if (isActive) {
+                    this.timingWheel.unsettle(tracked);
+                } else {
+                    this.timingWheel.settle(tracked, this.quiescentChunkChecks);
+                }
             }
         } catch (IllegalStateException e) {
             if (this.plugin.isDebugging()) {
@@ -510,7 +1353,15 @@ public class LobotomizeStorage {
      * @param active whether the villager is currently in the active state
      * @return true if the villager transitioned states or is invalid or dead; false if it remained in its current state or the chunk was unloaded
      */
-    private boolean processVillager(@NotNull Villager villager, boolean active) {
+    private boolean processVillager(@NotNull TrackedVillager tracked, boolean active) {
+        return processVillager(tracked, active, gridOf(tracked.villager().getWorld()));
+    }
+
+    /**
+     * Same as {@link #processVillager(TrackedVillager, boolean)}, reading blocks through {@code grid}.
+     */
+    private boolean processVillager(@NotNull TrackedVillager tracked, boolean active, @NotNull BlockGrid grid) {
+        Villager villager = tracked.villager();
         if (!villager.isValid() || villager.isDead()) {
             return true;
         }
@@ -526,19 +1377,44 @@ public class LobotomizeStorage {
         }
 
         // Reuse the coordinates already computed above instead of cloning the location again.
-        boolean shouldBeActive = this.shouldBeActive(villager, blockX, blockY, blockZ);
+        VillagerActivityPolicy policy = this.activityPolicy;
+        int flags = inputFlagsOf(tracked, policy);
+        int experience = villager.getVillagerExperience();
+        long version = this.chunkVersions.versionOf(villager.getWorld().getUID(), blockX >> 4, blockZ >> 4);
+        boolean shouldBeActive;
+        if (tracked.recalls(flags, experience, blockX, blockY, blockZ, version, policy)) {
+            this.decisionsReused.increment();
+            shouldBeActive = tracked.lastDecision();
+        } else {
+            this.decisionsEvaluated.increment();
+            shouldBeActive = policy.shouldBeActive(flags, experience, blockX, blockY, blockZ, grid);
+            tracked.remember(flags, experience, blockX, blockY, blockZ, version, policy, shouldBeActive);
+        }
+        return applyDecision(tracked, active, shouldBeActive);
+    }
 
+    /**
+     * Moves a villager to the state the policy decided on and does the upkeep of its current state
+     * (marker cleanup, trade refreshes). Must run on the villager's own thread.
+     *
+     * @return true if the villager transitioned states
+     */
+    private boolean applyDecision(@NotNull TrackedVillager tracked, boolean active, boolean shouldBeActive) {
+        Villager villager = tracked.villager();
         if (shouldBeActive) {
             // Clear any stale marker whenever the villager should be active, not just on transition,
             // so a marker left by a prior persist-enabled run can't re-lobotomize it after a config flip.
-            clearLobotomizedMarker(villager);
+            clearMarker(tracked);
             if (!active) {
+                // Untracked while it was being checked; whatever untracked it also woke it.
+                if (this.villagerStates.transition(tracked, VillagerStateTable.State.ACTIVE) == VillagerStateTable.State.UNTRACKED) {
+                    return false;
+                }
                 // Already running on entity thread, safe to modify villager
                 villager.setAware(true);
                 if (this.silentLobotomizedVillagers) {
                     villager.setSilent(false);
                 }
-                setActive(villager);
                 if (this.plugin.isDebugging()) {
                     this.logger.info("[Debug] Villager " + villager + " (" + villager.getUniqueId() + ") is now active");
                 }
@@ -549,22 +1425,26 @@ public class LobotomizeStorage {
                 villager.setGlowing(true);
             }
         } else {
-            // Inactive villagers still need their trades refreshed
-            this.refreshTrades(villager);
+            // Inactive villagers still need their trades refreshed, unless the server is shedding load;
+            // restocks are timestamp based, so a paused refresh catches up on a later check, or on the
+            // restock timer of the villager's chunk while that is suspended.
+            if (!this.loadGovernor.tradeRefreshPaused()) {
+                this.refreshTrades(tracked);
+            }
 
             if (active) {
+                // Untracked while it was being checked; lobotomizing it now would leave nobody to wake it.
+                if (this.villagerStates.transition(tracked, VillagerStateTable.State.INACTIVE) == VillagerStateTable.State.UNTRACKED) {
+                    return false;
+                }
                 // Already running on entity thread, safe to modify villager
                 villager.setAware(false);
                 if (this.silentLobotomizedVillagers) {
                     villager.setSilent(true);
                 }
                 if (this.persistLobotomizedState) {
-                    villager.getPersistentDataContainer().set(this.lobotomizedKey, PersistentDataType.BYTE, (byte) 1);
-                    if (this.plugin.isDebugging()) {
-                        this.logger.info("[Debug] Set persistent lobotomized marker for " + villager.getUniqueId());
-                    }
+                    setMarker(tracked);
                 }
-                setInactive(villager);
                 if (this.plugin.isDebugging()) {
                     this.logger.info("[Debug] Villager " + villager + " (" + villager.getUniqueId() + ") is now inactive");
                 }
@@ -578,7 +1458,9 @@ public class LobotomizeStorage {
                     villager.setSilent(true);
                 }
                 if (this.persistLobotomizedState) {
-                    villager.getPersistentDataContainer().set(this.lobotomizedKey, PersistentDataType.BYTE, (byte) 1);
+                    // The stale wake cleared the marker behind this record's back.
+                    tracked.markerKnown = false;
+                    setMarker(tracked);
                 }
             }
             if (this.plugin.isDebugging() && !this.plugin.isFolia() && this.plugin.getInactiveVillagersTeam() != null) {
@@ -589,69 +1471,61 @@ public class LobotomizeStorage {
         return false; // Don't mutate anything
     }
 
-    private void runWatchdog() {
-        if (this.shuttingDown) return;
-        // Snapshot under stateLock so the weakly-consistent iterator can't pair a stale
-        // active-set yield with a fresh inactive-set contains and report a false dupe.
-        List<Villager> dupes;
-        synchronized (this.stateLock) {
-            dupes = new ArrayList<>();
-            for (Villager v : this.activeVillagers) {
-                if (this.inactiveVillagers.contains(v)) {
-                    dupes.add(v);
-                }
-            }
-        }
-        if (dupes.isEmpty()) return;
-        this.logger.warning("[Watchdog] Found " + dupes.size()
-                + " villager(s) in both active and inactive sets; reconciling.");
-        for (Villager v : dupes) {
-            reconcile(v);
-        }
-    }
-
     /**
-     * Corrects a villager found to be in an inconsistent active/inactive state.
+     * Checks one sampled villager against its tracked state and repairs the first thing that
+     * doesn't match and that this plugin set itself. An active villager made unaware by someone else
+     * is only reported, once until it is aware again. Runs on the villager's thread.
      *
-     * Determines the correct state based on the villager's environment and updates its membership,
-     * awareness, and any persistent state markers accordingly.
-     *
-     * @param v the villager to reconcile
+     * @param sampled the state it was tracked in when sampled
+     * @return what was repaired, or {@code null} if the villager is consistent or changed state since
      */
-    private void reconcile(@NotNull Villager v) {
-        try {
-            v.getScheduler().run(this.plugin, SentryTaskWrapper.wrap((t) -> {
-                if (!v.isValid() || v.isDead()) {
-                    untrack(v);
-                    return;
-                }
-                boolean shouldBeActive = this.shouldBeActive(v);
-                if (shouldBeActive) {
-                    setActive(v);
-                    v.setAware(true);
-                    if (this.silentLobotomizedVillagers) {
-                        v.setSilent(false);
-                    }
-                    if (this.persistLobotomizedState) {
-                        v.getPersistentDataContainer().remove(this.lobotomizedKey);
-                    }
+    private @Nullable StateAuditor.Drift auditVillager(@NotNull TrackedVillager tracked, @NotNull VillagerStateTable.State sampled) {
+        // A transition since the sample is not drift; it left the villager consistent itself.
+        if (this.shuttingDown || tracked.state() != sampled) {
+            return null;
+        }
+        Villager villager = tracked.villager();
+        if (!villager.isValid() || villager.isDead()) {
+            untrack(tracked);
+            this.timingWheel.cancel(tracked);
+            return StateAuditor.Drift.STALE;
+        }
+        boolean active = sampled == VillagerStateTable.State.ACTIVE;
+        if (!active && villager.isAware()) {
+            // This plugin made it unaware; whatever woke it, it is lobotomized by our state.
+            villager.setAware(false);
+            if (this.silentLobotomizedVillagers) {
+                villager.setSilent(true);
+            }
+            return StateAuditor.Drift.AWARENESS;
+        }
+        if (active && !villager.isAware()) {
+            // Never done by this plugin to an active villager: another plugin (an NPC or shop
+            // villager) turned its AI off on purpose. Report it once and leave it be.
+            if (!tracked.foreignUnaware) {
+                tracked.foreignUnaware = true;
+                return StateAuditor.Drift.FOREIGN_AWARENESS;
+            }
+        } else {
+            tracked.foreignUnaware = false;
+        }
+        if (this.persistLobotomizedState) {
+            // Read the persistent data itself: the record's cached copy is part of what is audited.
+            tracked.markerKnown = false;
+            if (hasMarker(tracked) == active) {
+                if (active) {
+                    clearMarker(tracked);
                 } else {
-                    setInactive(v);
-                    v.setAware(false);
-                    if (this.silentLobotomizedVillagers) {
-                        v.setSilent(true);
-                    }
-                    if (this.persistLobotomizedState) {
-                        v.getPersistentDataContainer().set(
-                                this.lobotomizedKey, PersistentDataType.BYTE, (byte) 1);
-                    }
+                    setMarker(tracked);
                 }
-                this.logger.info("[Watchdog] Reconciled villager " + v.getUniqueId()
-                        + " to " + (shouldBeActive ? "active" : "inactive"));
-            }), null);
-        } catch (IllegalPluginAccessException e) {
-            // plugin disabling
+                return StateAuditor.Drift.MARKER;
+            }
+        }
+        if (!this.timingWheel.isScheduled(tracked)) {
+            this.scheduleVillagerTask(tracked, this.intervalRange(villager, baseIntervalOf(sampled)).floor());
+            return StateAuditor.Drift.UNSCHEDULED;
         }
+        return null;
     }
 
     /**
@@ -663,6 +1537,19 @@ public class LobotomizeStorage {
         return VillagerUtils.shouldRestock(villager, this.lastRestockCheckDayTimeKey);
     }
 
+    /**
+     * Refreshes the trades of a villager in a suspended chunk, which gets no checks to do it in until
+     * the chunk resumes. Runs on the villager's thread.
+     */
+    private void refreshSuspended(@NotNull TrackedVillager tracked) {
+        Villager villager = tracked.villager();
+        if (this.shuttingDown || tracked.state() != VillagerStateTable.State.INACTIVE
+                || !villager.isValid() || villager.isDead() || this.loadGovernor.tradeRefreshPaused()) {
+            return;
+        }
+        this.refreshTrades(tracked);
+    }
+
     /**
      * Restocks the villager's trades and increases their level based on time and experience.
      *
@@ -670,9 +1557,13 @@ public class LobotomizeStorage {
      * conditions are met. Leveling increases the villager's level to match accumulated experience.
      * Both operations require daytime (in the overworld) and a nearby job site.
      */
-    private void refreshTrades(@NotNull Villager villager) {
-        PersistentDataContainer pdc = villager.getPersistentDataContainer();
-        long lastRestock = pdc.getOrDefault(this.key, PersistentDataType.LONG, 0L);
+    private void refreshTrades(@NotNull TrackedVillager tracked) {
+        Villager villager = tracked.villager();
+        if (!tracked.restockKnown) {
+            tracked.lastRestock = villager.getPersistentDataContainer().getOrDefault(this.key, PersistentDataType.LONG, 0L);
+            tracked.restockKnown = true;
+        }
+        long lastRestock = tracked.lastRestock;
 
         long now = System.currentTimeMillis();
         long timeSinceLastRestock = now - lastRestock;
@@ -716,8 +1607,8 @@ public class LobotomizeStorage {
         }
 
         if (intervalPassed && shouldRestock(villager)) {
-            lastRestock = now;
-            pdc.set(this.key, PersistentDataType.LONG, lastRestock);
+            tracked.lastRestock = now;
+            villager.getPersistentDataContainer().set(this.key, PersistentDataType.LONG, now);
             List<MerchantRecipe> recipes = new ArrayList<>(villager.getRecipes());
 
             for (MerchantRecipe recipe : recipes) {
@@ -767,103 +1658,173 @@ public class LobotomizeStorage {
      * Records that a block has changed, marking its chunk and edge-adjacent neighbors for deferred villager processing.
      */
     public void handleBlockChange(Block block) {
+        handleBlockUpdate(block);
         if (this.plugin.isDisableChunkVillagerUpdate()) {
             return;
         }
-        // Mark the block's own chunk, plus any edge-adjacent neighbor, without allocating a list
-        // per event (block break/place fires constantly on a busy server).
-        Chunk chunk = block.getChunk();
+        // Mark the block's own chunk, plus any edge-adjacent neighbor, by coordinates alone: whether
+        // they are loaded is only looked at when the pass dispatches them.
+        UUID worldId = block.getWorld().getUID();
+        int chunkX = block.getX() >> 4;
+        int chunkZ = block.getZ() >> 4;
         long stamp = System.currentTimeMillis();
-        changedChunks.put(chunk, stamp);
+        markChangedChunk(worldId, chunkX, chunkZ, stamp);
 
         int blockInChunkX = block.getX() & 0xF;
         int blockInChunkZ = block.getZ() & 0xF;
 
-        World world = block.getWorld();
-
-        // If <= 1 or >= 14 then add the -/+ chunk respectively without loading them
-        if (blockInChunkX <= 1 && world.isChunkLoaded(chunk.getX() - 1, chunk.getZ())) {
-            changedChunks.put(world.getChunkAt(chunk.getX() - 1, chunk.getZ()), stamp);
-        } else if (blockInChunkX >= 14 && world.isChunkLoaded(chunk.getX() + 1, chunk.getZ())) {
-            changedChunks.put(world.getChunkAt(chunk.getX() + 1, chunk.getZ()), stamp);
+        // If <= 1 or >= 14 then add the -/+ chunk respectively
+        if (blockInChunkX <= 1) {
+            markChangedChunk(worldId, chunkX - 1, chunkZ, stamp);
+        } else if (blockInChunkX >= 14) {
+            markChangedChunk(worldId, chunkX + 1, chunkZ, stamp);
         }
 
         // Same for Z
-        if (blockInChunkZ <= 1 && world.isChunkLoaded(chunk.getX(), chunk.getZ() - 1)) {
-            changedChunks.put(world.getChunkAt(chunk.getX(), chunk.getZ() - 1), stamp);
-        } else if (blockInChunkZ >= 14 && world.isChunkLoaded(chunk.getX(), chunk.getZ() + 1)) {
-            changedChunks.put(world.getChunkAt(chunk.getX(), chunk.getZ() + 1), stamp);
+        if (blockInChunkZ <= 1) {
+            markChangedChunk(worldId, chunkX, chunkZ - 1, stamp);
+        } else if (blockInChunkZ >= 14) {
+            markChangedChunk(worldId, chunkX, chunkZ + 1, stamp);
+        }
+    }
+
+    private void markChangedChunk(UUID worldId, int chunkX, int chunkZ, long stamp) {
+        this.changedChunks.put(worldId, chunkX, chunkZ, stamp);
+        if (this.quiescentChunkChecks > 0) {
+            // Suspended chunks must come back before the chunk pass re-evaluates them, and a block on
+            // a chunk edge can free or trap a villager standing just across it.
+            this.timingWheel.resumeChunk(worldId, chunkX, chunkZ);
+        }
+    }
+
+    /**
+     * Records that a block changed without scheduling a pass over its chunk, so villagers next to it
+     * evaluate their next check afresh instead of reusing their last decision. Meant for changes
+     * that happen too often to re-check for, such as flowing water or pistons.
+     */
+    public void handleBlockUpdate(@NotNull Block block) {
+        this.chunkVersions.blockChanged(block.getWorld().getUID(), block.getX(), block.getZ());
+    }
+
+    /**
+     * Stamps the loaded chunks around a chunk that just loaded, so villagers on their edge evaluate
+     * their next check against its blocks instead of reusing a decision made while it was unloaded.
+     */
+    public void handleChunkLoad(@NotNull Chunk chunk) {
+        stampNeighbours(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Forgets the block changes recorded for an unloading chunk; its villagers go with it, along with
+     * the decisions they remembered. The loaded chunks around it are stamped, since their villagers
+     * can no longer read into it.
+     */
+    public void handleChunkUnload(@NotNull Chunk chunk) {
+        UUID worldId = chunk.getWorld().getUID();
+        this.chunkVersions.forget(worldId, chunk.getX(), chunk.getZ());
+        this.chunkSnapshots.forget(worldId, chunk.getX(), chunk.getZ());
+        this.changedChunks.remove(worldId, chunk.getX(), chunk.getZ());
+        stampNeighbours(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    private void stampNeighbours(World world, int chunkX, int chunkZ) {
+        UUID worldId = world.getUID();
+        // Only loaded ones: an unloaded chunk's stamp would never be forgotten.
+        if (world.isChunkLoaded(chunkX - 1, chunkZ)) {
+            this.chunkVersions.chunkChanged(worldId, chunkX - 1, chunkZ);
+        }
+        if (world.isChunkLoaded(chunkX + 1, chunkZ)) {
+            this.chunkVersions.chunkChanged(worldId, chunkX + 1, chunkZ);
+        }
+        if (world.isChunkLoaded(chunkX, chunkZ - 1)) {
+            this.chunkVersions.chunkChanged(worldId, chunkX, chunkZ - 1);
+        }
+        if (world.isChunkLoaded(chunkX, chunkZ + 1)) {
+            this.chunkVersions.chunkChanged(worldId, chunkX, chunkZ + 1);
+        }
+    }
+
+    /**
+     * Resumes checks for the chunk of a villager a player interacted with; trading or a name tag can
+     * change its decision without any block changing.
+     */
+    public void handleVillagerInteract(@NotNull Villager villager) {
+        if (this.quiescentChunkChecks <= 0) {
+            return;
+        }
+        TrackedVillager tracked = this.villagerStates.get(villager);
+        if (tracked != null) {
+            this.timingWheel.resume(tracked);
         }
     }
 
     /**
      * Schedules villager activity evaluation for recently modified chunks.
      * Chunks are removed from tracking if they have not been modified within the past 3 seconds
-     * or are no longer loaded.
+     * or are no longer loaded. Chunks are only resolved from their coordinates here.
      */
     private void processChunks() {
         long now = System.currentTimeMillis();
-        changedChunks.entrySet().removeIf(entry -> {
-            Chunk chunk = entry.getKey();
-            long lastChange = entry.getValue();
-
-            // Drop chunks idle past the update threshold (3 seconds)
+        this.changedChunks.forEach((worldId, chunkX, chunkZ, lastChange) -> {
+            // Drop chunks idle past the update threshold (3 seconds); a chunk changed again since it
+            // was copied keeps its new stamp.
             if (now - lastChange > 3000) {
-                return true;
+                this.changedChunks.removeIfStamped(worldId, chunkX, chunkZ, lastChange);
+                return;
             }
 
-            if (!chunk.isLoaded()) {
-                return true;
+            World world = Bukkit.getWorld(worldId);
+            if (world == null || !world.isChunkLoaded(chunkX, chunkZ)) {
+                this.changedChunks.removeIfStamped(worldId, chunkX, chunkZ, lastChange);
+                return;
             }
 
             if (this.plugin.isChunkDebugging()) {
-                this.logger.info("[Debug] Processing chunk " + chunk.getX() + ", " + chunk.getZ() + " for villagers");
-            }
-
-            if (chunk.isLoaded()) {
-                this.scheduleChunkVillagerProcessing(chunk);
+                this.logger.info("[Debug] Processing chunk " + chunkX + ", " + chunkZ + " for villagers");
             }
 
-            return false;
+            this.scheduleChunkVillagerProcessing(world, chunkX, chunkZ);
         });
     }
     
     /**
      * Schedules villager processing for a chunk using region-appropriate scheduling.
      *
-     * <p>Entity enumeration ({@link Chunk#getEntities()}) and per-entity access must happen on the
-     * region thread that owns the chunk. This method is invoked from {@link #processChunks()} on the
-     * global region scheduler, which on Folia does <strong>not</strong> own arbitrary chunks, so
+     * <p>Per-entity access must happen on the region thread that owns the chunk. This method is
+     * invoked from {@link #processChunks()} on the global region scheduler, which on Folia does <strong>not</strong> own arbitrary chunks, so
      * touching entities here directly would throw a thread-ownership violation. We therefore dispatch
      * the whole body onto the owning region via {@link io.papermc.paper.threadedregions.scheduler.RegionScheduler}
      * (which simply runs on the main thread on non-Folia Paper).
      */
-    private void scheduleChunkVillagerProcessing(Chunk chunk) {
-        if (!chunk.isLoaded()) {
-            return;
-        }
-
-        final World world = chunk.getWorld();
-        final int cx = chunk.getX();
-        final int cz = chunk.getZ();
-
+    private void scheduleChunkVillagerProcessing(World world, int cx, int cz) {
         try {
             Bukkit.getRegionScheduler().run(this.plugin, world, cx, cz, SentryTaskWrapper.wrap((scheduledTask) -> {
                 // Re-check liveness: the region task runs a tick or more after we were scheduled.
-                if (!chunk.isLoaded()) {
+                if (!world.isChunkLoaded(cx, cz)) {
                     return;
                 }
-                for (Entity entity : chunk.getEntities()) {
-                    if (entity instanceof Villager villager) {
-                        if (this.inactiveVillagers.contains(villager) || this.activeVillagers.contains(villager)) {
-                            boolean isActive = this.activeVillagers.contains(villager);
-                            if (this.processVillager(villager, isActive)) {
-                                if (this.plugin.isDebugging()) {
-                                    this.logger.info("[Debug] Processed villager " + villager + " (" + villager.getUniqueId() + ") in chunk " + cx + ", " + cz);
-                                }
-                            }
-                        }
+                // Straight from the chunk index rather than copying every entity in the chunk.
+                for (TrackedVillager tracked : this.timingWheel.villagersIn(world.getUID(), cx, cz)) {
+                    Villager villager = tracked.villager();
+                    // A villager that just walked into another region is checked by that region.
+                    if (!villager.isValid() || !Bukkit.isOwnedByCurrentRegion(villager)) {
+                        continue;
+                    }
+                    VillagerStateTable.State state = tracked.state();
+                    if (state == VillagerStateTable.State.UNTRACKED) {
+                        continue;
                     }
+                    boolean isActive = state == VillagerStateTable.State.ACTIVE;
+                    // Block-change checks aren't deferred or budgeted; the player is waiting on them.
+                    boolean transitioned = this.processVillager(tracked, isActive);
+                    if (transitioned && this.plugin.isDebugging()) {
+                        this.logger.info("[Debug] Processed villager " + villager + " (" + villager.getUniqueId() + ") in chunk " + cx + ", " + cz);
+                    }
+                    // A block change nearby may have freed or trapped the villager, so drop any
+                    // backoff and go back to the base interval for whatever state it is in now.
+                    boolean nowActive = transitioned != isActive;
+                    long baseInterval = nowActive ? this.checkInterval : this.inactiveCheckInterval;
+                    this.rescheduleVillagerTask(tracked, this.intervalRange(villager, baseInterval).floor());
                 }
             }));
         } catch (IllegalPluginAccessException e) {
@@ -876,45 +1837,17 @@ public class LobotomizeStorage {
 
 
     /**
-     * Determines if a villager should be considered active.
-     *
-     * @return {@code true} if the villager should be active, {@code false} otherwise.
-     */
-    private boolean shouldBeActive(Villager villager) {
-        Location loc = villager.getLocation().add(0.0F, 0.51, 0.0F);
-        return shouldBeActive(villager, loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
-    }
-
-    /**
-     * Determines whether a villager should be active at the given block location.
-     *
-     * @return {@code true} if the villager should be active at the given location, {@code false} otherwise
+     * Reduces a villager's name, swimming and sleeping status, vehicle presence and profession to
+     * what {@code policy} decides by.
      */
-    private boolean shouldBeActive(Villager villager, int blockX, int blockY, int blockZ) {
-        return this.activityPolicy.shouldBeActive(
-                villagerStateOf(villager, blockX, blockY, blockZ),
-                gridOf(villager.getWorld()));
-    }
-
-    /**
-     * Builds a state representation of a villager at the given block coordinates.
-     *
-     * @return a VillagerState containing the villager's name, swimming and sleeping status,
-     *         vehicle presence, profession, experience, and block coordinates
-     */
-    private VillagerState villagerStateOf(Villager villager, int blockX, int blockY, int blockZ) {
-        Component customName = villager.customName();
-        String name = customName == null
-                ? ""
-                : PlainTextComponentSerializer.plainText().serialize(customName).toLowerCase();
-        return new VillagerState(
-                name,
+    private static int inputFlagsOf(TrackedVillager tracked, VillagerActivityPolicy policy) {
+        Villager villager = tracked.villager();
+        return policy.flagsOf(
+                tracked.name(),
                 villager.isSwimming(),
                 villager.isSleeping(),
                 villager.getVehicle() instanceof Vehicle,
-                villager.getProfession() == Villager.Profession.NONE,
-                villager.getVillagerExperience(),
-                blockX, blockY, blockZ);
+                villager.getProfession() == Villager.Profession.NONE);
     }
 
     /**
@@ -922,8 +1855,8 @@ public class LobotomizeStorage {
      * unloaded chunk, which the policy treats as "cannot move there" — this reproduces the original
      * per-column {@code isChunkLoaded} short-circuit for cardinal neighbours. The villager's own
      * column (feet/head/floor/roof) is assumed loaded by callers ({@code processVillager} guards the
-     * villager's chunk before evaluating; {@code reconcile} only runs on valid in-world villagers),
-     * so the policy's null-tolerance for the centre column is never exercised in practice. A future
+     * villager's chunk before evaluating, and sweeps only evaluate villagers of a loaded chunk), so
+     * the policy's null-tolerance for the centre column is never exercised in practice. A future
      * caller that evaluates a villager whose own chunk may be unloaded must revisit that assumption.
      * <p>
      * A single {@code shouldBeActive} evaluation queries up to ~16 blocks, the bulk of them in the
@@ -934,6 +1867,20 @@ public class LobotomizeStorage {
      * where the cached chunk cannot unload mid-evaluation.
      */
     private static BlockGrid gridOf(World world) {
+        return gridOf(world, null);
+    }
+
+    /**
+     * Like {@link #gridOf(World)}, but also remembers every block it resolves. Villagers in a
+     * trading hall stand wall to wall, so their checks read many of the same blocks; one grid
+     * shared by a whole chunk sweep answers most of those reads from the map. Valid for a single
+     * sweep on the owning region thread only.
+     */
+    private static BlockGrid sweepGridOf(World world) {
+        return gridOf(world, new HashMap<>());
+    }
+
+    private static BlockGrid gridOf(World world, Map<Long, BlockSnapshot> resolved) {
         return new BlockGrid() {
             private Chunk cachedChunk;
             private int cachedChunkX;
@@ -960,9 +1907,12 @@ public class LobotomizeStorage {
                     this.cachedChunkX = chunkX;
                     this.cachedChunkZ = chunkZ;
                 }
-                Block b = chunk.getBlock(x & 0xF, clampedY, z & 0xF);
-                Material type = b.getType();
-                return new BlockSnapshot(type, b.isPassable(), type.isSolid());
+                if (resolved == null) {
+                    return snapshotOf(chunk, x, clampedY, z);
+                }
+                long position = ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | ((long) clampedY & 0xFFFL);
+                Chunk owner = chunk;
+                return resolved.computeIfAbsent(position, (key) -> snapshotOf(owner, x, clampedY, z));
             }
         };
     }
@@ -987,6 +1937,51 @@ public class LobotomizeStorage {
         return converted;
     }
 
+    /**
+     * Reads the check intervals. check-interval/inactive-check-interval are scheduler periods (ticks)
+     * and must be >= 1, or every tracked villager's check would be rejected.
+     */
+    private void readCheckIntervals() {
+        this.checkInterval = validateInterval("check-interval", this.plugin.getConfig().getLong("check-interval"), 1L, 150L);
+        this.inactiveCheckInterval = validateInterval("inactive-check-interval", this.plugin.getConfig().getLong("inactive-check-interval", this.checkInterval), 1L, 150L);
+        // Ceiling for the backoff applied to villagers whose state doesn't change between checks. At or
+        // below the base intervals the backoff never grows, which disables it.
+        this.maxCheckInterval = validateInterval("max-check-interval", this.plugin.getConfig().getLong("max-check-interval", 1200L), 0L, 1200L);
+        // Villagers within near-player-distance of a player are checked at near-player-check-interval so
+        // trading feels responsive; villagers beyond far-player-distance of every player start at
+        // far-player-check-interval.
+        this.nearPlayerCheckInterval = validateInterval("near-player-check-interval", this.plugin.getConfig().getLong("near-player-check-interval", 40L), 1L, 40L);
+        this.farPlayerCheckInterval = validateInterval("far-player-check-interval", this.plugin.getConfig().getLong("far-player-check-interval", 1200L), 1L, 1200L);
+    }
+
+    /**
+     * Reads the restock timing. Both are wall-clock milliseconds and must not be negative.
+     */
+    private void readRestockIntervals() {
+        this.restockInterval = validateInterval("restock-interval", this.plugin.getConfig().getLong("restock-interval"), 0L, 540000L);
+        this.restockRandomRange = validateInterval("restock-random-range", this.plugin.getConfig().getLong("restock-random-range"), 0L, 0L);
+    }
+
+    /**
+     * Builds the activity policy from the current config.
+     */
+    private @NotNull VillagerActivityPolicy readActivityPolicy() {
+        Set<String> exemptNames = this.plugin.getConfig().getStringList("always-active-names").stream()
+                .filter(Objects::nonNull)
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        return new VillagerActivityPolicy(
+                this.plugin.getConfig().getBoolean("always-lobotomize-villagers-in-vehicles"),
+                this.plugin.getConfig().getBoolean("only-lobotomize-villagers-with-professions"),
+                this.plugin.getConfig().getBoolean("only-lobotomize-villagers-with-experience"),
+                this.plugin.getConfig().getBoolean("check-roof"),
+                // Whether door blocks count as a bypass (passable) block.
+                this.plugin.getConfig().getBoolean("ignore-villagers-stuck-in-doors"),
+                this.plugin.getConfig().getBoolean("ignore-non-solid-blocks"),
+                exemptNames,
+                BlockClassifier.fromServerRegistry());
+    }
+
     /**
      * Validates a config interval, clamping out-of-range values to a safe fallback and warning.
      *
@@ -1006,66 +2001,70 @@ public class LobotomizeStorage {
     }
 
     /**
-     * Schedules periodic processing of a villager at the specified interval,
-     * replacing any existing task.
+     * Places a villager on the timing wheel at the specified interval,
+     * replacing any existing entry.
      *
      * Does nothing if the plugin is disabled or shutting down. If the villager
-     * is no longer tracked, the scheduling is skipped. If a plugin access
-     * exception occurs, the villager is untracked.
+     * is no longer tracked, the scheduling is skipped. If the wheel can't
+     * register a driver (plugin disabling), the villager is untracked.
      *
-     * @param villager the villager to schedule
-     * @param interval the scheduling period in ticks
+     * @param tracked the record of the villager to schedule
+     * @param interval the check period in ticks
      */
-    private void scheduleVillagerTask(@NotNull Villager villager, long interval) {
+    private void scheduleVillagerTask(@NotNull TrackedVillager tracked, long interval) {
         if (this.shuttingDown || !this.plugin.isEnabled()) {
             return;
         }
 
-        UUID id = villager.getUniqueId();
-        // Manage the task and set membership atomically (paired with removeVillager) so a concurrent
-        // removal can't interleave between cancelling the old task and installing the new one, which
-        // would leak a live task for a villager that is no longer tracked.
-        synchronized (this.stateLock) {
-            // Re-check under the lock: flush() flips shuttingDown and clears tasks here too, so this
-            // closes the window where a schedule slipping past the pre-lock check installs an orphan.
-            if (this.shuttingDown) {
-                return;
+        // Don't install an entry for a villager that was removed concurrently.
+        if (!tracked.isTracked()) {
+            return;
+        }
+        if (!this.timingWheel.schedule(tracked, interval)) {
+            untrack(tracked);
+            return;
+        }
+        // Paired with removeVillager(), which untracks before cancelling: whichever of the two runs
+        // second sees the other's write, so a removal racing this schedule can't leave a live entry
+        // behind. The wheel refuses entries once flush() has shut it down.
+        if (!tracked.isTracked()) {
+            this.timingWheel.cancel(tracked);
+        }
+    }
+
+    /**
+     * Works out the interval a villager should be checked at, given the base interval for its state
+     * and how close the nearest player is. Near villagers run at the near interval (if faster) and
+     * never back off; far villagers start at the far interval (if slower); the backoff ceiling is
+     * never below the floor.
+     */
+    private @NotNull IntervalRange intervalRange(@NotNull Villager villager, long baseInterval) {
+        return switch (this.proximityIndex.tierOf(villager.getLocation())) {
+            case NEAR -> {
+                long near = Math.min(baseInterval, this.nearPlayerCheckInterval);
+                yield new IntervalRange(near, near);
             }
-            // Don't install a task for a villager that was removed concurrently.
-            if (!this.activeVillagers.contains(villager) && !this.inactiveVillagers.contains(villager)) {
-                return;
+            case MID -> new IntervalRange(baseInterval, Math.max(baseInterval, this.maxCheckInterval));
+            case FAR -> {
+                long far = Math.max(baseInterval, this.farPlayerCheckInterval);
+                yield new IntervalRange(far, Math.max(far, this.maxCheckInterval));
             }
+        };
+    }
 
-            ScheduledTask existing = this.villagerTasks.remove(id);
-            if (existing != null && !existing.isCancelled()) {
-                existing.cancel();
-            }
+    private record IntervalRange(long floor, long ceiling) {
+    }
 
-            try {
-                ScheduledTask task = villager.getScheduler().runAtFixedRate(
-                        this.plugin,
-                        SentryTaskWrapper.wrap((scheduledTask) -> this.processVillagerSafely(villager)),
-                        null,
-                        interval,
-                        interval
-                );
-                this.villagerTasks.put(id, task);
-                this.villagerTaskIntervals.put(id, interval);
-            } catch (IllegalPluginAccessException e) {
-                untrack(villager);
-                this.villagerTaskIntervals.remove(id);
-            }
-        }
+    private static BlockSnapshot snapshotOf(Chunk chunk, int x, int y, int z) {
+        Block b = chunk.getBlock(x & 0xF, y, z & 0xF);
+        Material type = b.getType();
+        return new BlockSnapshot(type, b.isPassable(), type.isSolid());
     }
 
     /**
-     * Reschedule a villager only when the interval changes.
+     * Moves a villager to a new wheel slot only when the interval changes.
      */
-    private void rescheduleVillagerTask(@NotNull Villager villager, long newInterval) {
-        Long currentInterval = this.villagerTaskIntervals.get(villager.getUniqueId());
-        if (currentInterval != null && currentInterval == newInterval) {
-            return;
-        }
-        this.scheduleVillagerTask(villager, newInterval);
+    private void rescheduleVillagerTask(@NotNull TrackedVillager tracked, long newInterval) {
+        this.timingWheel.reschedule(tracked, newInterval);
     }
 }
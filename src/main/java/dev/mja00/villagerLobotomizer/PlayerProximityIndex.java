@@ -0,0 +1,146 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import dev.mja00.villagerLobotomizer.utils.SentryTaskWrapper;
+
+/**
+ * A per-world snapshot of where players are, refreshed a few times a second, used to sort villagers
+ * into distance tiers without touching player entities on the villager's thread.
+ * <p>
+ * On Paper positions are read directly on the main thread. On Folia each player's position is read
+ * on its own {@code EntityScheduler} and lands in the snapshot published by the next refresh, so the
+ * index trails players by at most two refreshes. Positions that stop being updated (the player quit
+ * or changed worlds) age out after {@value #STALE_POSITION_NANOS} ns.
+ */
+final class PlayerProximityIndex {
+    static final long REFRESH_INTERVAL_TICKS = 5L;
+    private static final long STALE_POSITION_NANOS = 1_000_000_000L;
+
+    /**
+     * How close the nearest player is to a villager.
+     */
+    enum Tier {
+        NEAR,
+        MID,
+        FAR
+    }
+
+    private final VillagerLobotomizer plugin;
+    private final long nearDistanceSquared;
+    private final long farDistanceSquared;
+    private final Map<UUID, Position> positions = new ConcurrentHashMap<>();
+    private volatile Map<UUID, WorldPositions> byWorld = Map.of();
+
+    /**
+     * @param nearDistance horizontal distance in blocks within which a villager is {@link Tier#NEAR};
+     *                     {@code 0} disables the near tier
+     * @param farDistance  horizontal distance in blocks beyond which a villager is {@link Tier#FAR};
+     *                     {@code 0} disables the far tier
+     */
+    PlayerProximityIndex(@NotNull VillagerLobotomizer plugin, long nearDistance, long farDistance) {
+        this.plugin = plugin;
+        this.nearDistanceSquared = nearDistance * nearDistance;
+        this.farDistanceSquared = farDistance * farDistance;
+    }
+
+    boolean isEnabled() {
+        return this.nearDistanceSquared > 0L || this.farDistanceSquared > 0L;
+    }
+
+    /**
+     * Requests fresh player positions and publishes the ones gathered so far. Runs on the global
+     * region thread.
+     */
+    void refresh() {
+        long now = System.nanoTime();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (this.plugin.isFolia()) {
+                player.getScheduler().run(this.plugin, SentryTaskWrapper.wrap((task) -> this.record(player)), null);
+            } else {
+                this.record(player);
+            }
+        }
+
+        Map<UUID, List<Position>> grouped = new HashMap<>();
+        this.positions.values().removeIf((position) -> now - position.recordedNanos() > STALE_POSITION_NANOS);
+        for (Position position : this.positions.values()) {
+            grouped.computeIfAbsent(position.world(), (world) -> new ArrayList<>()).add(position);
+        }
+        Map<UUID, WorldPositions> snapshot = new HashMap<>(grouped.size());
+        for (Map.Entry<UUID, List<Position>> world : grouped.entrySet()) {
+            snapshot.put(world.getKey(), WorldPositions.of(world.getValue()));
+        }
+        this.byWorld = snapshot;
+    }
+
+    private void record(Player player) {
+        // Spectators can't trade or trap villagers, so they shouldn't keep them on a fast tier.
+        if (!player.isValid() || player.getGameMode() == GameMode.SPECTATOR) {
+            this.positions.remove(player.getUniqueId());
+            return;
+        }
+        Location location = player.getLocation();
+        this.positions.put(player.getUniqueId(), new Position(location.getWorld().getUID(),
+                location.getBlockX(), location.getBlockZ(), System.nanoTime()));
+    }
+
+    /**
+     * @return the tier for a villager at the given location, based on the nearest player in the
+     * same world
+     */
+    @NotNull Tier tierOf(@NotNull Location location) {
+        if (!isEnabled()) {
+            return Tier.MID;
+        }
+        WorldPositions players = this.byWorld.get(location.getWorld().getUID());
+        long nearest = players == null ? Long.MAX_VALUE : players.nearestDistanceSquared(location.getBlockX(), location.getBlockZ());
+        if (this.nearDistanceSquared > 0L && nearest <= this.nearDistanceSquared) {
+            return Tier.NEAR;
+        }
+        if (this.farDistanceSquared > 0L && nearest > this.farDistanceSquared) {
+            return Tier.FAR;
+        }
+        return Tier.MID;
+    }
+
+    private record Position(UUID world, int x, int z, long recordedNanos) {
+    }
+
+    /**
+     * Player coordinates of one world as flat arrays; a linear scan over a server's worth of players
+     * is cheaper than maintaining a spatial structure that's rebuilt several times a second anyway.
+     */
+    private record WorldPositions(int[] xs, int[] zs) {
+        static WorldPositions of(List<Position> positions) {
+            int[] xs = new int[positions.size()];
+            int[] zs = new int[positions.size()];
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = positions.get(i).x();
+                zs[i] = positions.get(i).z();
+            }
+            return new WorldPositions(xs, zs);
+        }
+
+        long nearestDistanceSquared(int x, int z) {
+            long nearest = Long.MAX_VALUE;
+            for (int i = 0; i < this.xs.length; i++) {
+                long dx = this.xs[i] - x;
+                long dz = this.zs[i] - z;
+                nearest = Math.min(nearest, dx * dx + dz * dz);
+            }
+            return nearest;
+        }
+    }
+}
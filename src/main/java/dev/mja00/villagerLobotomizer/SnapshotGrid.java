@@ -0,0 +1,149 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.type.Gate;
+import org.bukkit.block.data.type.Snow;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import dev.mja00.villagerLobotomizer.policy.BlockGrid;
+import dev.mja00.villagerLobotomizer.policy.BlockSnapshot;
+
+/**
+ * A {@link BlockGrid} over chunk snapshots taken on the owning region thread, so policy evaluation
+ * can run on any thread afterwards. Chunks that weren't captured read as unloaded.
+ * <p>
+ * Resolved blocks are remembered like the sweep grid does; the grid is meant to be driven by one
+ * thread at a time.
+ * <p>
+ * A snapshot has no collision shapes, so passability is {@linkplain #isPassable estimated} from block
+ * data. The estimate is only certain for blocks without collision and for full cubes;
+ * {@link #readEstimate()} tells whether a check read anything else, so its decision can be verified
+ * against the live blocks before it is applied.
+ */
+final class SnapshotGrid implements BlockGrid {
+    private final int minHeight;
+    private final int maxHeight;
+    private final @Nullable ChunkSnapshotCache cache;
+    private final Map<Long, ChunkSnapshot> chunks = new HashMap<>();
+    private final Map<Long, BlockSnapshot> resolved = new HashMap<>();
+    private boolean readEstimate;
+
+    SnapshotGrid(@NotNull World world) {
+        this(world, null);
+    }
+
+    /**
+     * @param cache where to take chunk snapshots from, or {@code null} to always take new ones
+     */
+    SnapshotGrid(@NotNull World world, @Nullable ChunkSnapshotCache cache) {
+        this.minHeight = world.getMinHeight();
+        this.maxHeight = world.getMaxHeight();
+        this.cache = cache;
+    }
+
+    /**
+     * Snapshots a chunk if it is loaded and not captured yet. Must run on the thread that owns it.
+     */
+    void capture(@NotNull World world, int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+        if (this.chunks.containsKey(key) || !world.isChunkLoaded(chunkX, chunkZ)) {
+            return;
+        }
+        this.chunks.put(key, this.cache != null ? this.cache.snapshotOf(world, chunkX, chunkZ)
+                : world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false));
+    }
+
+    /**
+     * Snapshots everything a check of a villager standing at the given block can read: its own
+     * chunk, plus the chunk next door when it stands on the chunk's edge.
+     */
+    void captureAround(@NotNull World world, int blockX, int blockZ) {
+        int chunkX = blockX >> 4;
+        int chunkZ = blockZ >> 4;
+        capture(world, chunkX, chunkZ);
+        int localX = blockX & 0xF;
+        int localZ = blockZ & 0xF;
+        if (localX == 0) {
+            capture(world, chunkX - 1, chunkZ);
+        } else if (localX == 0xF) {
+            capture(world, chunkX + 1, chunkZ);
+        }
+        if (localZ == 0) {
+            capture(world, chunkX, chunkZ - 1);
+        } else if (localZ == 0xF) {
+            capture(world, chunkX, chunkZ + 1);
+        }
+    }
+
+    @Override
+    public BlockSnapshot at(int x, int y, int z) {
+        int clampedY = Math.clamp(y, this.minHeight, this.maxHeight - 1);
+        ChunkSnapshot chunk = this.chunks.get(chunkKey(x >> 4, z >> 4));
+        if (chunk == null) {
+            return null;
+        }
+        long position = ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | ((long) clampedY & 0xFFFL);
+        BlockSnapshot block = this.resolved.computeIfAbsent(position, (key) -> {
+            BlockData data = chunk.getBlockData(x & 0xF, clampedY, z & 0xF);
+            Material type = data.getMaterial();
+            return new BlockSnapshot(type, isPassable(type, data), type.isSolid());
+        });
+        if (!isPassabilityCertain(block.type())) {
+            this.readEstimate = true;
+        }
+        return block;
+    }
+
+    /**
+     * Forgets whether a block with estimated passability was read, before the next check.
+     */
+    void clearReadEstimate() {
+        this.readEstimate = false;
+    }
+
+    /**
+     * @return whether any block read since {@link #clearReadEstimate()} had its passability estimated
+     * rather than known
+     */
+    boolean readEstimate() {
+        return this.readEstimate;
+    }
+
+    /**
+     * Estimates from block data whether an entity can pass through a block, as {@code Block#isPassable}
+     * works out from its collision shape, which a snapshot has none of. Blocks without collision are
+     * passable; of those with collision, open fence gates, single snow layers, scaffolding and powder
+     * snow have an empty shape when no entity is asking.
+     */
+    static boolean isPassable(@NotNull Material type, @NotNull BlockData data) {
+        if (!type.isCollidable()) {
+            return true;
+        }
+        if (data instanceof Gate gate) {
+            return gate.isOpen();
+        }
+        if (data instanceof Snow snow) {
+            return snow.getLayers() <= 1;
+        }
+        return type == Material.SCAFFOLDING || type == Material.POWDER_SNOW;
+    }
+
+    /**
+     * @return whether {@link #isPassable} is certain to agree with {@code Block#isPassable} for every
+     * state of the material: it has no collision at all, or it is a full cube
+     */
+    static boolean isPassabilityCertain(@NotNull Material type) {
+        return !type.isCollidable() || type.isOccluding();
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
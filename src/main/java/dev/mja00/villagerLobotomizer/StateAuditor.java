@@ -0,0 +1,186 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Villager;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import dev.mja00.villagerLobotomizer.utils.SentryTaskWrapper;
+
+/**
+ * Checks a rotating sample of tracked villagers every tick against what their tracked state says
+ * they should look like, and counts whatever drifted.
+ * <p>
+ * The state table already gives every villager exactly one state, so what is left to drift is the
+ * villager itself (awareness or marker changed behind our back, the entity gone without a removal
+ * event) or its wheel entry. Walking a few villagers per tick finds that in bounded time without
+ * ever pausing on the whole table, and the counts show up in {@code /lobotomy info} and bStats
+ * instead of the log.
+ * <p>
+ * Only what this plugin set itself is repaired. Other plugins disable the AI of their own
+ * villagers (NPCs, shops) on purpose, so an active villager found unaware is reported and left
+ * alone.
+ */
+final class StateAuditor {
+    /**
+     * What was found wrong with an audited villager.
+     */
+    enum Drift {
+        /**
+         * Tracked, but the entity is no longer in the world.
+         */
+        STALE(true),
+        /**
+         * Awake while lobotomized.
+         */
+        AWARENESS(true),
+        /**
+         * Unaware while active, which this plugin never does; reported, not repaired.
+         */
+        FOREIGN_AWARENESS(false),
+        /**
+         * Persistent marker missing on a lobotomized villager, or left on an active one.
+         */
+        MARKER(true),
+        /**
+         * Tracked without a scheduled check.
+         */
+        UNSCHEDULED(true);
+
+        private final boolean repaired;
+
+        Drift(boolean repaired) {
+            this.repaired = repaired;
+        }
+
+        /**
+         * @return whether finding this drift also repairs it
+         */
+        boolean isRepaired() {
+            return this.repaired;
+        }
+    }
+
+    /**
+     * Checks one villager on its own thread and repairs what doesn't match its tracked state.
+     */
+    @FunctionalInterface
+    interface Check {
+        /**
+         * @param sampled the state the villager was tracked in when it was sampled
+         * @return what was found, or {@code null} if nothing was
+         */
+        @Nullable Drift audit(@NotNull TrackedVillager tracked, @NotNull VillagerStateTable.State sampled);
+    }
+
+    private final VillagerLobotomizer plugin;
+    private final VillagerStateTable states;
+    private final Check check;
+    private final int villagersPerTick;
+    private final LongAdder audited = new LongAdder();
+    private final Map<Drift, LongAdder> found = new EnumMap<>(Drift.class);
+    // Only touched from the global region thread.
+    private long cursor;
+
+    StateAuditor(@NotNull VillagerLobotomizer plugin, @NotNull VillagerStateTable states, @NotNull Check check, int villagersPerTick) {
+        this.plugin = plugin;
+        this.states = states;
+        this.check = check;
+        this.villagersPerTick = villagersPerTick;
+        for (Drift drift : Drift.values()) {
+            this.found.put(drift, new LongAdder());
+        }
+    }
+
+    boolean isEnabled() {
+        return this.villagersPerTick > 0;
+    }
+
+    /**
+     * Audits this tick's share of villagers. Runs on the global region thread; villagers it doesn't
+     * own are audited on their own scheduler.
+     */
+    void tick() {
+        this.cursor = this.states.sample(this.cursor, this.villagersPerTick, this::dispatch);
+    }
+
+    private void dispatch(TrackedVillager tracked, VillagerStateTable.State sampled) {
+        Villager villager = tracked.villager();
+        if (Bukkit.isOwnedByCurrentRegion(villager)) {
+            audit(tracked, sampled);
+            return;
+        }
+        try {
+            villager.getScheduler().run(this.plugin, SentryTaskWrapper.wrap((task) -> audit(tracked, sampled)),
+                    () -> {
+                        // Retired: the entity left the world, but it was still in the table when sampled.
+                        if (this.states.remove(tracked) != VillagerStateTable.State.UNTRACKED) {
+                            record(villager, Drift.STALE);
+                        }
+                    });
+        } catch (IllegalPluginAccessException e) {
+            // plugin disabling
+        }
+    }
+
+    private void audit(TrackedVillager tracked, VillagerStateTable.State sampled) {
+        this.audited.increment();
+        Drift drift = this.check.audit(tracked, sampled);
+        if (drift != null) {
+            record(tracked.villager(), drift);
+        }
+    }
+
+    private void record(Villager villager, Drift drift) {
+        this.found.get(drift).increment();
+        if (this.plugin.isDebugging()) {
+            this.plugin.getLogger().info("[Debug] Audit " + (drift.isRepaired() ? "repaired " : "found ") + drift.name().toLowerCase()
+                    + " drift on villager " + villager.getUniqueId());
+        }
+    }
+
+    /**
+     * @return how many villager audits have run
+     */
+    long audited() {
+        return this.audited.sum();
+    }
+
+    /**
+     * @return how many times each kind of drift was found, repaired or not, by lower-case drift name
+     */
+    @NotNull Map<String, Integer> drift() {
+        return counts(null);
+    }
+
+    /**
+     * @return how many repairs of each kind were made, by lower-case drift name
+     */
+    @NotNull Map<String, Integer> repairs() {
+        return counts(true);
+    }
+
+    /**
+     * @return how many times each kind of drift that is only reported was found, by lower-case
+     * drift name
+     */
+    @NotNull Map<String, Integer> reports() {
+        return counts(false);
+    }
+
+    private Map<String, Integer> counts(@Nullable Boolean repaired) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<Drift, LongAdder> entry : this.found.entrySet()) {
+            if (repaired == null || entry.getKey().isRepaired() == repaired) {
+                counts.put(entry.getKey().name().toLowerCase(), (int) Math.min(Integer.MAX_VALUE, entry.getValue().sum()));
+            }
+        }
+        return counts;
+    }
+}
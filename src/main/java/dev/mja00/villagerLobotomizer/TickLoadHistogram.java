@@ -0,0 +1,68 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how many villager checks each wheel driver tick ran, in power-of-two buckets. A flat
+ * schedule keeps nearly all ticks in the low buckets; checks firing in lockstep show up as a tail
+ * in the high ones.
+ */
+final class TickLoadHistogram {
+    static final String[] BUCKET_LABELS = {"0", "1", "2-3", "4-7", "8-15", "16-31", "32-63", "64+"};
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_LABELS.length];
+
+    TickLoadHistogram() {
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one driver tick that ran {@code checks} villager checks.
+     */
+    void record(int checks) {
+        this.buckets[bucketOf(checks)].increment();
+    }
+
+    static int bucketOf(int checks) {
+        if (checks <= 0) {
+            return 0;
+        }
+        int bucket = 1 + (31 - Integer.numberOfLeadingZeros(checks));
+        return Math.min(bucket, BUCKET_LABELS.length - 1);
+    }
+
+    /**
+     * @return the number of ticks recorded in each bucket, keyed by bucket label in ascending order
+     */
+    Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (int i = 0; i < this.buckets.length; i++) {
+            snapshot.put(BUCKET_LABELS[i], this.buckets[i].sum());
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return each bucket's share of all recorded ticks in tenths of a percent, keyed by bucket label
+     * in ascending order; empty if nothing was recorded yet
+     */
+    Map<String, Integer> perMille() {
+        Map<String, Long> snapshot = snapshot();
+        long total = 0L;
+        for (long count : snapshot.values()) {
+            total += count;
+        }
+        Map<String, Integer> shares = new LinkedHashMap<>();
+        if (total == 0L) {
+            return shares;
+        }
+        for (Map.Entry<String, Long> bucket : snapshot.entrySet()) {
+            shares.put(bucket.getKey(), (int) Math.round(1000.0 * bucket.getValue() / total));
+        }
+        return shares;
+    }
+}
@@ -0,0 +1,175 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.entity.Villager;
+import org.jetbrains.annotations.NotNull;
+
+import dev.mja00.villagerLobotomizer.policy.VillagerActivityPolicy;
+import dev.mja00.villagerLobotomizer.policy.VillagerBatch;
+
+/**
+ * Everything kept about one tracked villager, reached with a single state table lookup: its state,
+ * its timing wheel entry, and what earlier checks already worked out about it, so a check doesn't
+ * re-derive those from the entity and its persistent data every time.
+ * <p>
+ * The state is swapped by compare-and-set through the state table and the wheel entry is written
+ * under this record's own monitor; both can be read from any thread. The evaluation context below them is
+ * only touched on the thread that owns the villager. Once a villager is untracked its record stays
+ * {@code UNTRACKED} for good and tracking the villager again creates a new one, so anyone still
+ * holding the old record (a due wheel entry, a sweep in flight) sees that it is gone.
+ */
+final class TrackedVillager {
+    /**
+     * How many checks in a row may reuse a decision before it is evaluated again anyway. Reuse
+     * assumes every block change near the villager shows up in {@link ChunkVersions} through an
+     * event; blocks set by other plugins or world editors, and physics without an event, don't, and
+     * this bounds how long a villager can be judged by blocks that are no longer there.
+     */
+    static final int MAX_DECISION_REUSES = 16;
+
+    private static final VarHandle STATUS;
+
+    static {
+        try {
+            STATUS = MethodHandles.lookup().findVarHandle(TrackedVillager.class, "status", VillagerStateTable.Status.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Villager villager;
+    // Only ever swapped through swapStatus() and untrack().
+    volatile VillagerStateTable.Status status = VillagerStateTable.Status.UNTRACKED;
+    // Guarded by this record's monitor.
+    VillagerTimingWheel.Entry entry;
+
+    // The last decision and everything it was made from; no policy means there is none.
+    private int lastFlags;
+    private int lastExperience;
+    private int lastBlockX;
+    private int lastBlockY;
+    private int lastBlockZ;
+    private VillagerActivityPolicy lastPolicy;
+    private long lastVersion;
+    private boolean lastDecision;
+    private int reuses;
+
+    // Persistent data cached on first read and written through on every change.
+    boolean markerKnown;
+    boolean marked;
+    boolean restockKnown;
+    long lastRestock;
+    // An audit found the villager active but made unaware by something else, and reported it.
+    boolean foreignUnaware;
+
+    private Component nameSource;
+    private volatile String name = "";
+
+    TrackedVillager(@NotNull Villager villager) {
+        this.villager = villager;
+    }
+
+    @NotNull Villager villager() {
+        return this.villager;
+    }
+
+    @NotNull VillagerStateTable.State state() {
+        return this.status.state;
+    }
+
+    boolean isTracked() {
+        return state() != VillagerStateTable.State.UNTRACKED;
+    }
+
+    /**
+     * @return whether the status was still {@code expected} and is now {@code next}
+     */
+    boolean swapStatus(@NotNull VillagerStateTable.Status expected, @NotNull VillagerStateTable.Status next) {
+        return STATUS.compareAndSet(this, expected, next);
+    }
+
+    /**
+     * Marks the record untracked for good.
+     *
+     * @return the status it had
+     */
+    @NotNull VillagerStateTable.Status untrack() {
+        return (VillagerStateTable.Status) STATUS.getAndSet(this, VillagerStateTable.Status.UNTRACKED);
+    }
+
+    /**
+     * @return the villager's custom name in plain lower case, or {@code ""} if it has none; only
+     * serialized again when the name changed since the last call
+     */
+    @NotNull String name() {
+        Component customName = this.villager.customName();
+        if (!Objects.equals(customName, this.nameSource)) {
+            this.nameSource = customName;
+            this.name = customName == null ? "" : PlainTextComponentSerializer.plainText().serialize(customName).toLowerCase();
+        }
+        return this.name;
+    }
+
+    /**
+     * @return the name {@link #name()} last worked out, as of the villager's last check; unlike
+     * {@code name()} it doesn't touch the entity, so it can be read from any thread
+     */
+    @NotNull String lastName() {
+        return this.name;
+    }
+
+    /**
+     * Whether the last decision still holds for a check of a villager the policy reduced to
+     * {@code flags}: the villager is on the same block in the same condition, the policy is the same,
+     * and no block near it changed since. Counts as a reuse when it does.
+     *
+     * @param flags   what {@link VillagerActivityPolicy#flagsOf} of {@code policy} made of the villager
+     * @param version the stamp of the villager's chunk in {@link ChunkVersions}, read before any block
+     */
+    boolean recalls(int flags, int experience, int blockX, int blockY, int blockZ, long version,
+                    @NotNull VillagerActivityPolicy policy) {
+        if (this.lastPolicy != policy || this.reuses >= MAX_DECISION_REUSES || this.lastVersion != version
+                || this.lastFlags != flags || this.lastExperience != experience
+                || this.lastBlockX != blockX || this.lastBlockY != blockY || this.lastBlockZ != blockZ) {
+            return false;
+        }
+        this.reuses++;
+        return true;
+    }
+
+    /**
+     * @return the decision {@link #recalls} vouched for
+     */
+    boolean lastDecision() {
+        return this.lastDecision;
+    }
+
+    /**
+     * Records the decision made for the villager at index {@code i} of {@code batch}, taking what it
+     * was made from out of the batch's columns.
+     */
+    void remember(@NotNull VillagerBatch batch, int i, long version, @NotNull VillagerActivityPolicy policy, boolean decision) {
+        remember(batch.flags(i), batch.experience(i), batch.blockX(i), batch.blockY(i), batch.blockZ(i), version, policy, decision);
+    }
+
+    /**
+     * Records a decision and what it was made from.
+     */
+    void remember(int flags, int experience, int blockX, int blockY, int blockZ, long version,
+                  @NotNull VillagerActivityPolicy policy, boolean decision) {
+        this.lastFlags = flags;
+        this.lastExperience = experience;
+        this.lastBlockX = blockX;
+        this.lastBlockY = blockY;
+        this.lastBlockZ = blockZ;
+        this.lastVersion = version;
+        this.lastPolicy = policy;
+        this.lastDecision = decision;
+        this.reuses = 0;
+    }
+}
@@ -11,6 +11,7 @@ import io.sentry.Sentry;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bstats.bukkit.Metrics;
+import org.bstats.charts.AdvancedPie;
 import org.bstats.charts.MultiLineChart;
 import org.bstats.charts.SimplePie;
 import org.bstats.charts.SingleLineChart;
@@ -20,9 +21,9 @@ import org.bukkit.entity.Villager;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.World;
 import org.bukkit.scoreboard.ScoreboardManager;
 import org.bukkit.scoreboard.Team;
+import org.jetbrains.annotations.Nullable;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -32,11 +33,13 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
 
 public class VillagerLobotomizer extends JavaPlugin {
     private boolean debugging = false;
     private boolean chunkDebugging = false;
     private LobotomizeStorage storage;
+    private VillagerScan villagerScan;
     private boolean isFolia;
     static final HttpRequest request = HttpRequest.newBuilder().GET().uri(URI.create("https://api.modrinth.com/v3/project/villagerlobotomy/version")).build();
     static final HttpClient client = HttpClient.newHttpClient();
@@ -72,6 +75,7 @@ public class VillagerLobotomizer extends JavaPlugin {
 
         this.storage = new LobotomizeStorage(this);
         this.getServer().getPluginManager().registerEvents(new EntityListener(this), this);
+        this.startVillagerScan(null);
         LobotomizeCommand lobotomizeCommand = new LobotomizeCommand(this);
         this.getLifecycleManager().registerEventHandler(LifecycleEvents.COMMANDS, command -> {
             command.registrar().register(lobotomizeCommand.createCommand("lobotomy"));
@@ -196,13 +200,30 @@ public class VillagerLobotomizer extends JavaPlugin {
 
         metrics.addCustomChart(new SingleLineChart("active_villagers", () -> getStorage().getActive().size()));
         metrics.addCustomChart(new SingleLineChart("inactive_villagers", () -> getStorage().getLobotomized().size()));
-        metrics.addCustomChart(new SingleLineChart("total_villagers", () -> getStorage().getActive().size() + getStorage().getLobotomized().size()));
+        metrics.addCustomChart(new SingleLineChart("total_villagers", () -> getStorage().getTrackedCount()));
         metrics.addCustomChart(new SimplePie("is_folia", () -> this.isFolia ? "yes" : "no"));
+        // Shares rather than raw tick counts, so long-running servers don't drown out the rest.
+        metrics.addCustomChart(new AdvancedPie("checks_per_tick", () -> getStorage().getCheckLoad().perMille()));
+        // Drift found by the state audit since startup, repaired or only reported; all zero on a
+        // healthy server without other plugins' NPC villagers.
+        metrics.addCustomChart(new AdvancedPie("state_drift", () -> getStorage().getAuditor().drift()));
+        metrics.addCustomChart(new AdvancedPie("lobotomized_by_profession", () -> {
+            Map<String, Integer> byProfession = new HashMap<>();
+            getStorage().getCountsByProfession().forEach((profession, counts) -> {
+                if (counts.inactive() > 0) {
+                    byProfession.put(profession, counts.inactive());
+                }
+            });
+            return byProfession;
+        }));
     }
 
     @Override
     public void onDisable() {
         getLogger().info("Man guess I'll put my tools away now :(");
+        if (this.villagerScan != null) {
+            this.villagerScan.cancel();
+        }
         if (this.storage != null) {
             this.storage.flush();
         }
@@ -481,11 +502,36 @@ public class VillagerLobotomizer extends JavaPlugin {
     }
 
     /**
-     * Reloads configuration, reinitializes storage, and rescans all worlds for villagers.
+     * Starts scanning every loaded chunk for villagers the storage doesn't track yet, a few chunks
+     * per tick, replacing any scan that is still running.
+     *
+     * @param onComplete called with the number of villagers picked up once the scan finishes, or {@code null}
+     * @return the number of chunks the scan will visit
+     */
+    public int startVillagerScan(@Nullable IntConsumer onComplete) {
+        if (this.villagerScan != null) {
+            this.villagerScan.cancel();
+        }
+        long chunksPerTick = this.getConfig().getLong("scan-chunks-per-tick", 64L);
+        if (chunksPerTick < 1L) {
+            this.getLogger().warning("Config value 'scan-chunks-per-tick' must be >= 1 (got " + chunksPerTick + "); falling back to 64.");
+            chunksPerTick = 64L;
+        }
+        VillagerScan scan = new VillagerScan(this, this.storage, (int) Math.min(Integer.MAX_VALUE, chunksPerTick), onComplete);
+        this.villagerScan = scan;
+        scan.start();
+        return scan.totalChunks();
+    }
+
+    /**
+     * Reloads configuration, hands the tracked villagers over to a fresh storage, and starts rescanning
+     * all loaded chunks for villagers that weren't tracked yet.
      *
-     * @return the number of villagers added to storage, or -1 if storage recreation fails
+     * @param onComplete called with the number of villagers handed over plus those picked up once the
+     *                   rescan finishes, or {@code null}
+     * @return the number of loaded chunks the rescan will visit, or -1 if storage recreation fails
      */
-    public int reloadPluginState() {
+    public int reloadPluginState(@Nullable IntConsumer onComplete) {
         this.reloadConfig();
         // Apply enable-sentry transitions on reload (init if newly enabled, close if newly disabled).
         this.applySentryConfig();
@@ -507,10 +553,9 @@ public class VillagerLobotomizer extends JavaPlugin {
             return -1;
         }
 
-        if (previousStorage != null) {
-            // Reload: plugin stays enabled, so dispatch wake work via the entity scheduler (Folia-safe).
-            previousStorage.flush(true);
-        }
+        // Reload: move the tracked villagers across as they are instead of waking them all and letting
+        // the new storage lobotomize them again.
+        int handedOver = previousStorage == null ? 0 : previousStorage.handOverTo(newStorage);
         this.storage = newStorage;
 
         // Reset/recreate debug teams per current config
@@ -534,13 +579,7 @@ public class VillagerLobotomizer extends JavaPlugin {
             createDebuggingTeams();
         }
 
-        int villagers = 0;
-        for (World world : Bukkit.getWorlds()) {
-            for (Villager villager : world.getEntitiesByClass(Villager.class)) {
-                this.storage.addVillager(villager);
-                villagers++;
-            }
-        }
-        return villagers;
+        // The scan only picks up villagers that arrived while the storages were being swapped.
+        return this.startVillagerScan(onComplete == null ? null : (found) -> onComplete.accept(handedOver + found));
     }
 }
@@ -0,0 +1,198 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Villager;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import dev.mja00.villagerLobotomizer.utils.SentryTaskWrapper;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+
+/**
+ * Picks up villagers that were already loaded when the plugin enabled or reloaded, without walking
+ * every entity of every world in a single tick.
+ * <p>
+ * The loaded chunks are snapshotted up front and handed out a few at a time from a global task.
+ * Each chunk is scanned on the region that owns it, so on Folia the work is spread over the region
+ * threads and never touches an entity from the wrong one. Chunks that unload before their turn are
+ * skipped; their villagers come back through the usual entity add event when the chunk loads again.
+ * <p>
+ * On Folia no thread may list the loaded chunks or the entities of a world, so the scan visits
+ * nothing there. Villagers are picked up by {@code EntitiesLoadEvent} as their chunks load, and a
+ * reload hands the villagers the old storage tracked over to the new one.
+ */
+final class VillagerScan {
+    private static final long PROGRESS_REPORT_NANOS = 5_000_000_000L;
+    // Region tasks for chunks that unloaded in the meantime may never run; don't wait on them forever.
+    private static final long STALL_TIMEOUT_NANOS = 10_000_000_000L;
+
+    private final VillagerLobotomizer plugin;
+    private final LobotomizeStorage storage;
+    private final Logger logger;
+    private final int chunksPerTick;
+    private final Deque<ChunkRef> pending;
+    private final int totalChunks;
+    private final IntConsumer onComplete;
+    private final AtomicInteger scannedChunks = new AtomicInteger();
+    private final AtomicInteger foundVillagers = new AtomicInteger();
+    private volatile long lastProgressNanos = System.nanoTime();
+    private long lastReportNanos = System.nanoTime();
+    private volatile boolean finished = false;
+    private ScheduledTask task;
+
+    /**
+     * @param onComplete called with the number of villagers picked up once the scan finishes, or
+     *                   {@code null}
+     */
+    VillagerScan(@NotNull VillagerLobotomizer plugin, @NotNull LobotomizeStorage storage, int chunksPerTick,
+                 @Nullable IntConsumer onComplete) {
+        this.plugin = plugin;
+        this.storage = storage;
+        this.logger = plugin.getLogger();
+        this.chunksPerTick = chunksPerTick;
+        this.onComplete = onComplete;
+        this.pending = new ArrayDeque<>(plugin.isFolia() ? Set.of() : loadedChunks());
+        this.totalChunks = this.pending.size();
+    }
+
+    /**
+     * @return how many loaded chunks the scan will visit
+     */
+    int totalChunks() {
+        return this.totalChunks;
+    }
+
+    void start() {
+        if (this.plugin.isDebugging() && this.plugin.isFolia()) {
+            this.logger.info("[Debug] Not scanning loaded chunks on Folia; villagers are tracked as their chunks' entities load");
+        } else if (this.plugin.isDebugging()) {
+            this.logger.info("[Debug] Scanning " + this.totalChunks + " loaded chunks for villagers, "
+                    + this.chunksPerTick + " per tick");
+        }
+        try {
+            this.task = Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+                    this.plugin,
+                    SentryTaskWrapper.wrap((scheduledTask) -> this.tick()),
+                    1L,
+                    1L
+            );
+        } catch (IllegalPluginAccessException e) {
+            this.finished = true;
+        }
+    }
+
+    /**
+     * Stops handing out chunks. Chunks already dispatched still finish their scan.
+     */
+    void cancel() {
+        this.finished = true;
+        ScheduledTask current = this.task;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    private void tick() {
+        if (this.finished) {
+            return;
+        }
+        // A reload swapped the storage out from under us; the new scan covers it.
+        if (this.plugin.getStorage() != this.storage) {
+            cancel();
+            return;
+        }
+        for (int i = 0; i < this.chunksPerTick; i++) {
+            ChunkRef chunk = this.pending.poll();
+            if (chunk == null) {
+                break;
+            }
+            dispatch(chunk);
+        }
+
+        long now = System.nanoTime();
+        int scanned = this.scannedChunks.get();
+        if (scanned >= this.totalChunks || (this.pending.isEmpty() && now - this.lastProgressNanos > STALL_TIMEOUT_NANOS)) {
+            finish(scanned);
+            return;
+        }
+        if (now - this.lastReportNanos >= PROGRESS_REPORT_NANOS) {
+            this.lastReportNanos = now;
+            this.logger.info("Villager scan: " + scanned + "/" + this.totalChunks + " chunks, "
+                    + this.foundVillagers.get() + " villagers tracked so far");
+        }
+    }
+
+    private void dispatch(ChunkRef chunk) {
+        try {
+            Bukkit.getRegionScheduler().run(this.plugin, chunk.world(), chunk.x(), chunk.z(),
+                    SentryTaskWrapper.wrap((scheduledTask) -> this.scan(chunk)));
+        } catch (IllegalPluginAccessException e) {
+            cancel();
+        }
+    }
+
+    private void scan(ChunkRef ref) {
+        try {
+            if (this.finished || this.plugin.getStorage() != this.storage || !ref.world().isChunkLoaded(ref.x(), ref.z())) {
+                return;
+            }
+            for (Entity entity : ref.world().getChunkAt(ref.x(), ref.z()).getEntities()) {
+                if (!(entity instanceof Villager villager)) {
+                    continue;
+                }
+                // Anything the add event already picked up keeps the state it was given there.
+                if (this.storage.getActive().contains(villager) || this.storage.getLobotomized().contains(villager)) {
+                    continue;
+                }
+                this.storage.addVillager(villager);
+                this.foundVillagers.incrementAndGet();
+            }
+        } finally {
+            this.scannedChunks.incrementAndGet();
+            this.lastProgressNanos = System.nanoTime();
+        }
+    }
+
+    private void finish(int scanned) {
+        cancel();
+        int villagers = this.foundVillagers.get();
+        if (scanned < this.totalChunks) {
+            this.logger.info("Villager scan finished with " + (this.totalChunks - scanned)
+                    + " chunk(s) unloaded before they could be scanned; " + villagers + " villagers tracked");
+        } else if (this.plugin.isDebugging() || this.totalChunks > this.chunksPerTick) {
+            this.logger.info("Villager scan finished: " + this.totalChunks + " chunks, " + villagers + " villagers tracked");
+        }
+        if (this.onComplete != null) {
+            this.onComplete.accept(villagers);
+        }
+    }
+
+    /**
+     * Lists the chunk coordinates of every loaded chunk. Not for Folia, where listing them, or a
+     * world's entities, from this thread isn't allowed.
+     */
+    private static Set<ChunkRef> loadedChunks() {
+        Set<ChunkRef> chunks = new LinkedHashSet<>();
+        for (World world : Bukkit.getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                chunks.add(new ChunkRef(world, chunk.getX(), chunk.getZ()));
+            }
+        }
+        return chunks;
+    }
+
+    private record ChunkRef(World world, int x, int z) {
+    }
+}
@@ -0,0 +1,662 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.lang.invoke.VarHandle;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.bukkit.entity.Villager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The {@link TrackedVillager} record of every tracked villager, keyed by entity id.
+ * <p>
+ * The table is split into {@value #SEGMENT_COUNT} segments by a hash of the id, and each segment is
+ * an open-addressing table of parallel arrays (id, record). A lookup is a few int
+ * compares rather than {@code equals}/{@code hashCode} through the entity wrapper, and hands back
+ * the record holding everything else kept about the villager. Lookups take no lock: they read the
+ * arrays optimistically and retry if a writer moved entries around meanwhile, so the checks that
+ * only ask whether a villager is tracked never wait on one another.
+ * <p>
+ * A state transition takes no lock either: it is a compare-and-set of the record's {@link Status},
+ * so a villager has exactly one state at any time and checks of different villagers never contend.
+ * Only tracking and untracking, which add entries to a segment or move them, take the segment's
+ * monitor; with this many segments two of them rarely meet. Untracking swaps in {@code UNTRACKED}
+ * with the same compare-and-set, so a transition racing it either lands first and is counted or
+ * finds the record untracked and does nothing.
+ * <p>
+ * Per-state counts are kept alongside so {@code /lobotomy info} and bStats don't have to walk the
+ * table, both in total and per world and profession. The status pairs the state with the bucket
+ * it was counted in, and whichever thread swaps a status out moves that count, so a villager that
+ * changed profession while tracked is moved to its new bucket on its next transition and never
+ * decremented from the wrong one.
+ * <p>
+ * Entity ids are unique for the life of the server process, and a villager that changes worlds
+ * comes back as a new entity, so the id identifies one tracked villager for as long as it is tracked.
+ */
+final class VillagerStateTable {
+    /**
+     * Tracking state of one villager.
+     */
+    enum State {
+        UNTRACKED,
+        ACTIVE,
+        INACTIVE
+    }
+
+    private static final int SEGMENT_BITS = 6;
+    static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final LongAdder activeCount = new LongAdder();
+    private final LongAdder inactiveCount = new LongAdder();
+    private final Map<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Set<Villager> activeView = new View(State.ACTIVE);
+    private final Set<Villager> inactiveView = new View(State.INACTIVE);
+
+    VillagerStateTable() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            this.segments[i] = new Segment();
+        }
+    }
+
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private Segment segmentFor(int hash) {
+        return this.segments[hash & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * Puts a villager in {@code state}, tracking it if it isn't yet.
+     *
+     * @return the villager's record
+     */
+    @NotNull TrackedVillager track(@NotNull Villager villager, @NotNull State state) {
+        int id = villager.getEntityId();
+        int hash = mix(id);
+        Segment segment = segmentFor(hash);
+        Status target = bucketOf(villager).statusOf(state);
+        TrackedVillager tracked;
+        // Under the monitor, so the record can't be untracked between being found and being set.
+        synchronized (segment) {
+            int slot = segment.find(id, hash >>> SEGMENT_BITS);
+            if (slot < 0) {
+                tracked = new TrackedVillager(villager);
+                segment.add(id, hash >>> SEGMENT_BITS, tracked);
+            } else {
+                tracked = segment.tracked[slot];
+            }
+            for (;;) {
+                Status current = tracked.status;
+                if (tracked.swapStatus(current, target)) {
+                    recount(current, target);
+                    break;
+                }
+            }
+        }
+        return tracked;
+    }
+
+    /**
+     * Moves a tracked villager to {@code next}. A record that has been untracked in the meantime is
+     * left alone, so a check finishing after its villager was removed can't track it again.
+     *
+     * @return the state the villager was in before, or {@code UNTRACKED} if nothing changed
+     */
+    @NotNull State transition(@NotNull TrackedVillager tracked, @NotNull State next) {
+        Status target = bucketOf(tracked.villager()).statusOf(next);
+        for (;;) {
+            Status current = tracked.status;
+            if (current.state == State.UNTRACKED || current == target) {
+                return current.state;
+            }
+            if (tracked.swapStatus(current, target)) {
+                recount(current, target);
+                return current.state;
+            }
+        }
+    }
+
+    /**
+     * Moves the counts of a record whose status was just swapped from {@code previous} to
+     * {@code next}. Only the thread whose swap succeeded calls this, so every status is counted in
+     * and out exactly once.
+     */
+    private void recount(Status previous, Status next) {
+        if (previous.bucket != null) {
+            previous.bucket.add(previous.state, -1);
+        }
+        if (next.bucket != null) {
+            next.bucket.add(next.state, 1);
+        }
+        if (previous.state != next.state) {
+            count(previous.state, -1);
+            count(next.state, 1);
+        }
+    }
+
+    /**
+     * Stops tracking a villager.
+     *
+     * @return the state the villager was in
+     */
+    @NotNull State remove(@NotNull Villager villager) {
+        return remove(villager, null);
+    }
+
+    /**
+     * Stops tracking the villager of {@code tracked}, if that record is still the live one.
+     *
+     * @return the state the villager was in
+     */
+    @NotNull State remove(@NotNull TrackedVillager tracked) {
+        return remove(tracked.villager(), tracked);
+    }
+
+    private State remove(Villager villager, TrackedVillager only) {
+        int id = villager.getEntityId();
+        int hash = mix(id);
+        Segment segment = segmentFor(hash);
+        Status previous;
+        synchronized (segment) {
+            int slot = segment.find(id, hash >>> SEGMENT_BITS);
+            if (slot < 0 || (only != null && segment.tracked[slot] != only)) {
+                return State.UNTRACKED;
+            }
+            previous = segment.tracked[slot].untrack();
+            segment.removeAt(slot);
+        }
+        recount(previous, Status.UNTRACKED);
+        return previous.state;
+    }
+
+    private Bucket bucketOf(Villager villager) {
+        return this.buckets.computeIfAbsent(new BucketKey(villager.getWorld().getUID(), villager.getProfession()),
+                (key) -> new Bucket(villager.getWorld().getName(), key.profession().getKey().getKey()));
+    }
+
+    private void count(State state, int delta) {
+        if (state == State.ACTIVE) {
+            this.activeCount.add(delta);
+        } else if (state == State.INACTIVE) {
+            this.inactiveCount.add(delta);
+        }
+    }
+
+    /**
+     * @return the villager's record, or {@code null} if it isn't tracked
+     */
+    @Nullable TrackedVillager get(@NotNull Villager villager) {
+        int id = villager.getEntityId();
+        int hash = mix(id);
+        return segmentFor(hash).lookup(id, hash >>> SEGMENT_BITS);
+    }
+
+    @NotNull State stateOf(@NotNull Villager villager) {
+        TrackedVillager tracked = get(villager);
+        return tracked == null ? State.UNTRACKED : tracked.state();
+    }
+
+    boolean isTracked(@NotNull Villager villager) {
+        return stateOf(villager) != State.UNTRACKED;
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return active and lobotomized counts per world name, for worlds that have any
+     */
+    @NotNull Map<String, StateCounts> countsByWorld() {
+        return countsBy(Bucket::world);
+    }
+
+    /**
+     * @return active and lobotomized counts per profession, for professions that have any
+     */
+    @NotNull Map<String, StateCounts> countsByProfession() {
+        return countsBy(Bucket::profession);
+    }
+
+    private Map<String, StateCounts> countsBy(Function<Bucket, String> label) {
+        Map<String, StateCounts> counts = new TreeMap<>();
+        for (Bucket bucket : this.buckets.values()) {
+            int active = (int) Math.max(0L, bucket.active.sum());
+            int inactive = (int) Math.max(0L, bucket.inactive.sum());
+            if (active == 0 && inactive == 0) {
+                continue;
+            }
+            counts.merge(label.apply(bucket), new StateCounts(active, inactive),
+                    (a, b) -> new StateCounts(a.active() + b.active(), a.inactive() + b.inactive()));
+        }
+        return counts;
+    }
+
+    /**
+     * @return a read-only view of the active villagers; iteration is weakly consistent
+     */
+    @NotNull Set<Villager> active() {
+        return this.activeView;
+    }
+
+    /**
+     * @return a read-only view of the inactive villagers; iteration is weakly consistent
+     */
+    @NotNull Set<Villager> inactive() {
+        return this.inactiveView;
+    }
+
+    /**
+     * Hands every tracked villager's record to {@code action} with its state at the time. Each
+     * segment is copied under its monitor and handed over outside it, so iteration is weakly
+     * consistent and {@code action} may touch the table; the table is left as it is.
+     */
+    void forEach(@NotNull BiConsumer<TrackedVillager, State> action) {
+        List<TrackedVillager> records = new ArrayList<>();
+        List<State> states = new ArrayList<>();
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.copyInto(records, states);
+            }
+            for (int i = 0; i < records.size(); i++) {
+                action.accept(records.get(i), states.get(i));
+            }
+            records.clear();
+            states.clear();
+        }
+    }
+
+    /**
+     * Hands up to {@code max} tracked villagers to {@code action} with their state, starting where
+     * the previous call stopped, so successive calls walk the whole table in turn. Like
+     * {@link #forEach}, entries are copied under the segment monitor and handed over outside it.
+     *
+     * @param cursor the value the previous call returned, or {@code 0} to start at the beginning
+     * @return the cursor to continue from next time
+     */
+    long sample(long cursor, int max, @NotNull BiConsumer<TrackedVillager, State> action) {
+        List<TrackedVillager> villagers = new ArrayList<>(max);
+        List<State> states = new ArrayList<>(max);
+        int segmentIndex = (int) (cursor >>> 32) & (SEGMENT_COUNT - 1);
+        int slot = (int) cursor;
+        for (int visited = 0; visited < SEGMENT_COUNT; visited++) {
+            Segment segment = this.segments[segmentIndex];
+            synchronized (segment) {
+                slot = segment.copyFrom(slot, max - villagers.size(), villagers, states);
+            }
+            if (slot >= 0) {
+                break;
+            }
+            segmentIndex = (segmentIndex + 1) & (SEGMENT_COUNT - 1);
+            slot = 0;
+        }
+        for (int i = 0; i < villagers.size(); i++) {
+            action.accept(villagers.get(i), states.get(i));
+        }
+        return ((long) segmentIndex << 32) | (slot & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Stops tracking every villager.
+     *
+     * @return the villagers that were in state {@code wanted}
+     */
+    @NotNull List<Villager> drain(@NotNull State wanted) {
+        List<Villager> drained = new ArrayList<>();
+        drain((tracked, state) -> {
+            if (state == wanted) {
+                drained.add(tracked.villager());
+            }
+        });
+        return drained;
+    }
+
+    /**
+     * Stops tracking every villager, handing each record to {@code sink} with the state it was in.
+     */
+    void drain(@NotNull BiConsumer<TrackedVillager, State> sink) {
+        List<TrackedVillager> villagers = new ArrayList<>();
+        List<Status> statuses = new ArrayList<>();
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.clear(villagers, statuses);
+            }
+            for (int i = 0; i < villagers.size(); i++) {
+                Status previous = statuses.get(i);
+                recount(previous, Status.UNTRACKED);
+                sink.accept(villagers.get(i), previous.state);
+            }
+            villagers.clear();
+            statuses.clear();
+        }
+    }
+
+    /**
+     * One open-addressing table with linear probing. Removal shifts the following run back instead
+     * of leaving tombstones, so lookups never probe past the first free slot; a free slot has no
+     * record. Writers hold its monitor; the states of its records are not guarded by it.
+     * <p>
+     * {@link #lookup} runs without the monitor as a sequence lock: every change that moves entries
+     * (adding, removing, growing, clearing) makes {@code version} odd while it runs and even again
+     * after, and a lookup that saw it odd, or changed, by the time it finished probing starts over.
+     */
+    private static final class Segment {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int[] ids = new int[INITIAL_CAPACITY];
+        private TrackedVillager[] tracked = new TrackedVillager[INITIAL_CAPACITY];
+        private int size;
+        private volatile int version;
+
+        /**
+         * Finds a record without the monitor.
+         *
+         * @return the record, or {@code null} if there is none for {@code id}
+         */
+        TrackedVillager lookup(int id, int hash) {
+            for (;;) {
+                int seen = this.version;
+                if ((seen & 1) == 0) {
+                    TrackedVillager found = probe(this.ids, this.tracked, id, hash);
+                    // Keep the probe's reads from moving past the second read of the version.
+                    VarHandle.acquireFence();
+                    if (this.version == seen) {
+                        return found;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        /**
+         * Probes arrays that may be changing under it; only a result the version check confirms is
+         * used. Bounded, so a torn read can't keep it walking.
+         */
+        private static TrackedVillager probe(int[] ids, TrackedVillager[] tracked, int id, int hash) {
+            if (ids.length != tracked.length) {
+                return null;
+            }
+            int mask = ids.length - 1;
+            int i = hash & mask;
+            for (int probed = 0; probed < ids.length; probed++, i = (i + 1) & mask) {
+                TrackedVillager record = tracked[i];
+                if (record == null) {
+                    return null;
+                }
+                if (ids[i] == id) {
+                    return record;
+                }
+            }
+            return null;
+        }
+
+        private void beginMove() {
+            this.version++;
+            // Keep the moves that follow from becoming visible before the odd version.
+            VarHandle.storeStoreFence();
+        }
+
+        private void endMove() {
+            this.version++;
+        }
+
+        int find(int id, int hash) {
+            int mask = this.ids.length - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                if (this.tracked[i] == null) {
+                    return -1;
+                }
+                if (this.ids[i] == id) {
+                    return i;
+                }
+            }
+        }
+
+        /**
+         * Adds a record, still untracked; the caller sets its status.
+         */
+        void add(int id, int hash, TrackedVillager record) {
+            beginMove();
+            try {
+                if ((this.size + 1) * 2 > this.ids.length) {
+                    grow();
+                }
+                this.size++;
+                insert(id, hash, record);
+            } finally {
+                endMove();
+            }
+        }
+
+        private void insert(int id, int hash, TrackedVillager record) {
+            int mask = this.ids.length - 1;
+            int i = hash & mask;
+            while (this.tracked[i] != null) {
+                i = (i + 1) & mask;
+            }
+            this.ids[i] = id;
+            this.tracked[i] = record;
+        }
+
+        /**
+         * Takes the record in {@code slot} out of the table; the caller has already untracked it.
+         */
+        void removeAt(int slot) {
+            beginMove();
+            int mask = this.ids.length - 1;
+            int free = slot;
+            for (int j = (free + 1) & mask; this.tracked[j] != null; j = (j + 1) & mask) {
+                int home = (mix(this.ids[j]) >>> SEGMENT_BITS) & mask;
+                // An entry whose home lies cyclically in (free, j] is still reachable; anything else
+                // would be cut off from its home by the hole, so it moves into it.
+                boolean reachable = free <= j ? (free < home && home <= j) : (free < home || home <= j);
+                if (!reachable) {
+                    this.ids[free] = this.ids[j];
+                    this.tracked[free] = this.tracked[j];
+                    free = j;
+                }
+            }
+            this.ids[free] = 0;
+            this.tracked[free] = null;
+            endMove();
+            this.size--;
+        }
+
+        private void grow() {
+            int[] oldIds = this.ids;
+            TrackedVillager[] oldTracked = this.tracked;
+            int capacity = oldIds.length * 2;
+            this.ids = new int[capacity];
+            this.tracked = new TrackedVillager[capacity];
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldTracked[i] != null) {
+                    insert(oldIds[i], mix(oldIds[i]) >>> SEGMENT_BITS, oldTracked[i]);
+                }
+            }
+        }
+
+        /**
+         * Appends every record and its current state to the lists.
+         */
+        void copyInto(List<TrackedVillager> records, List<State> states) {
+            for (TrackedVillager record : this.tracked) {
+                if (record != null) {
+                    records.add(record);
+                    states.add(record.state());
+                }
+            }
+        }
+
+        /**
+         * Appends the villager of every record in state {@code only}.
+         */
+        void copyVillagers(List<Villager> villagers, State only) {
+            for (TrackedVillager record : this.tracked) {
+                if (record != null && record.state() == only) {
+                    villagers.add(record.villager());
+                }
+            }
+        }
+
+        /**
+         * Appends up to {@code max} records from slot {@code start} on.
+         *
+         * @return the slot to continue from, or {@code -1} if the end of the table was reached
+         */
+        int copyFrom(int start, int max, List<TrackedVillager> records, List<State> states) {
+            int copied = 0;
+            for (int i = Math.max(0, start); i < this.tracked.length; i++) {
+                TrackedVillager record = this.tracked[i];
+                if (record == null) {
+                    continue;
+                }
+                if (copied == max) {
+                    return i;
+                }
+                records.add(record);
+                states.add(record.state());
+                copied++;
+            }
+            return -1;
+        }
+
+        /**
+         * Untracks every record and empties the table, appending each record and the status it was
+         * untracked from to the lists.
+         */
+        void clear(List<TrackedVillager> records, List<Status> statuses) {
+            for (TrackedVillager record : this.tracked) {
+                if (record != null) {
+                    records.add(record);
+                    statuses.add(record.untrack());
+                }
+            }
+            beginMove();
+            this.ids = new int[INITIAL_CAPACITY];
+            this.tracked = new TrackedVillager[INITIAL_CAPACITY];
+            endMove();
+            this.size = 0;
+        }
+    }
+
+    /**
+     * Active and lobotomized villager counts.
+     */
+    record StateCounts(int active, int inactive) {
+        int total() {
+            return this.active + this.inactive;
+        }
+    }
+
+    private record BucketKey(UUID world, Villager.Profession profession) {
+    }
+
+    /**
+     * A villager's state together with the bucket it is counted in; swapped as one on the record.
+     * Each bucket holds the two tracked statuses for it, so a transition allocates nothing.
+     */
+    static final class Status {
+        static final Status UNTRACKED = new Status(State.UNTRACKED, null);
+
+        final State state;
+        private final Bucket bucket;
+
+        private Status(State state, Bucket bucket) {
+            this.state = state;
+            this.bucket = bucket;
+        }
+    }
+
+    /**
+     * Counts for the villagers of one profession in one world.
+     */
+    private static final class Bucket {
+        private final String world;
+        private final String profession;
+        private final LongAdder active = new LongAdder();
+        private final LongAdder inactive = new LongAdder();
+        private final Status activeStatus = new Status(State.ACTIVE, this);
+        private final Status inactiveStatus = new Status(State.INACTIVE, this);
+
+        Bucket(String world, String profession) {
+            this.world = world;
+            this.profession = profession;
+        }
+
+        String world() {
+            return this.world;
+        }
+
+        String profession() {
+            return this.profession;
+        }
+
+        Status statusOf(State state) {
+            return switch (state) {
+                case ACTIVE -> this.activeStatus;
+                case INACTIVE -> this.inactiveStatus;
+                case UNTRACKED -> Status.UNTRACKED;
+            };
+        }
+
+        void add(State state, int delta) {
+            if (state == State.ACTIVE) {
+                this.active.add(delta);
+            } else if (state == State.INACTIVE) {
+                this.inactive.add(delta);
+            }
+        }
+    }
+
+    private final class View extends AbstractSet<Villager> {
+        private final State state;
+
+        View(State state) {
+            this.state = state;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Villager villager && stateOf(villager) == this.state;
+        }
+
+        @Override
+        public int size() {
+            // Transitions on other threads can leave the adders briefly out of step with the table.
+            long count = (this.state == State.ACTIVE ? activeCount : inactiveCount).sum();
+            return (int) Math.max(0L, count);
+        }
+
+        @Override
+        public @NotNull Iterator<Villager> iterator() {
+            List<Villager> matching = new ArrayList<>();
+            for (Segment segment : segments) {
+                synchronized (segment) {
+                    segment.copyVillagers(matching, this.state);
+                }
+            }
+            return Collections.unmodifiableList(matching).iterator();
+        }
+    }
+}
@@ -0,0 +1,1295 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Villager;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.jetbrains.annotations.NotNull;
+
+import dev.mja00.villagerLobotomizer.utils.SentryTaskWrapper;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+
+/**
+ * Drives periodic villager checks from one repeating task per region-sized cell of chunks instead
+ * of one {@code runAtFixedRate} task per villager.
+ * <p>
+ * Each cell ({@value #CELL_SHIFT}-bit shifted chunk coordinates, so 8x8 chunks) owns a hashed
+ * timing wheel of {@value #SLOT_COUNT} tick slots and a single driver task registered through the
+ * {@link io.papermc.paper.threadedregions.scheduler.RegionScheduler} at an anchor chunk inside the
+ * cell. Every tick the driver advances its wheel and hands the villagers whose due tick has been
+ * reached to the processor. Intervals longer than the wheel simply stay in their slot for extra
+ * rotations. Rescheduling a villager on a state transition is a slot move under the cell's
+ * monitor rather than a cancel-and-recreate of a scheduler task.
+ * <p>
+ * On Folia a cell can straddle two regions after a region split, so a due villager that is not
+ * owned by the driver's thread is handed to its own {@code EntityScheduler} for that one run. A
+ * driver whose anchor chunk unloads stops ticking on Folia; {@link #superviseDrivers()} re-anchors
+ * such cells at the last known chunk of one of their villagers.
+ * <p>
+ * Villagers added together (a chunk load, a startup scan, a reload) would otherwise all come due on
+ * the same tick and stay in lockstep forever. Their first check is instead placed at a phase taken
+ * from a hash of their UUID, then nudged to the least occupied of the next few slots, so checks
+ * spread evenly across the interval. A villager moved to a new interval (a transition, a back-off,
+ * a block change near it) lands on the next tick of its phase at that interval too, so a whole hall
+ * rescheduled at once stays spread. {@link #loadHistogram()} records how many checks each driver
+ * tick ran to show how flat the result is.
+ * <p>
+ * Villagers are also grouped by chunk. Once every villager in a chunk has {@linkplain #settle
+ * settled} (given the same answer enough times in a row without leaving its block) the whole chunk
+ * is suspended: its entries come off their cells' wheels and cost nothing until
+ * {@link #resumeChunk} or {@link #resume} puts them back, or a villager is added to the chunk.
+ * Movement is only noticed when a villager is checked; nothing listens for entities moving. A
+ * suspended chunk keeps one region task that hands its villagers to the restocker every
+ * restock period, since trades are otherwise only refreshed during a check.
+ * <p>
+ * A chunk holding at least {@code sweepThreshold} villagers (a trading hall) is switched to sweep
+ * mode instead: its entries come off the wheel and one region task per chunk hands all of them to
+ * the {@link ChunkSweeper} at once, every interval the sweeper picks. The chunk goes back to
+ * per-villager entries once it thins out to half the threshold.
+ * <p>
+ * The chunk groups double as the index of which tracked villagers stand in a chunk
+ * ({@link #villagersIn}). Membership follows a villager when it is checked, so a villager that
+ * crossed a chunk boundary since is found in its old chunk until its next check, and a suspended
+ * one until its chunk resumes.
+ * <p>
+ * A villager's entry hangs off its {@link TrackedVillager} record rather than a map of its own, so
+ * the caller's one state table lookup also finds the entry.
+ */
+final class VillagerTimingWheel {
+    static final int CELL_SHIFT = 3;
+    static final int SLOT_COUNT = 256;
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+    // A driver that hasn't ticked for this long on a non-empty cell is assumed to be parked on an
+    // unloaded anchor chunk.
+    private static final long STALE_DRIVER_NANOS = 5_000_000_000L;
+    // How many consecutive slots an insert looks at to find the least occupied one.
+    private static final int PHASE_PROBE_SLOTS = 8;
+
+    private final VillagerLobotomizer plugin;
+    private final Logger logger;
+    private final Consumer<TrackedVillager> processor;
+    private final EvaluationBudget budget;
+    private final LoadGovernor governor;
+    private final Map<CellKey, Cell> cells = new ConcurrentHashMap<>();
+    private final Map<ChunkKey, ChunkGroup> chunkGroups = new ConcurrentHashMap<>();
+    private final AtomicInteger scheduledCount = new AtomicInteger();
+    private final AtomicInteger suspendedCount = new AtomicInteger();
+    private final AtomicInteger sweepingCount = new AtomicInteger();
+    private final ChunkSweeper sweeper;
+    private final int sweepThreshold;
+    private final Consumer<TrackedVillager> restocker;
+    private final LongSupplier restockPeriod;
+    private final TickLoadHistogram loadHistogram = new TickLoadHistogram();
+    private volatile boolean shutdown = false;
+
+    VillagerTimingWheel(@NotNull VillagerLobotomizer plugin, @NotNull Consumer<TrackedVillager> processor,
+                        @NotNull EvaluationBudget budget, @NotNull LoadGovernor governor,
+                        @NotNull ChunkSweeper sweeper, int sweepThreshold,
+                        @NotNull Consumer<TrackedVillager> restocker, @NotNull LongSupplier restockPeriod) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.processor = processor;
+        this.budget = budget;
+        this.governor = governor;
+        this.sweeper = sweeper;
+        this.sweepThreshold = sweepThreshold;
+        this.restocker = restocker;
+        this.restockPeriod = restockPeriod;
+    }
+
+    /**
+     * Evaluates every villager of a swept chunk in one pass.
+     */
+    @FunctionalInterface
+    interface ChunkSweeper {
+        /**
+         * @param villagers the chunk's villagers, all owned by the current region
+         * @param interval  the interval the chunk was swept at last time
+         * @return the number of ticks until the next sweep
+         */
+        long sweep(@NotNull List<TrackedVillager> villagers, long interval);
+    }
+
+    /**
+     * Places a villager on the wheel of the cell it currently stands in, replacing any existing
+     * entry for it. The first check fires somewhere within the next {@code interval} ticks, at a
+     * phase derived from the villager's UUID.
+     *
+     * @return {@code false} if no driver could be registered (plugin disabling)
+     */
+    boolean schedule(@NotNull TrackedVillager tracked, long interval) {
+        if (this.shutdown) {
+            return false;
+        }
+        Villager villager = tracked.villager();
+        Location location = villager.getLocation();
+        Entry entry = new Entry(tracked, interval, location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        Entry previous;
+        synchronized (tracked) {
+            previous = tracked.entry;
+            tracked.entry = entry;
+        }
+        if (previous != null) {
+            previous.cancelled = true;
+            leaveGroup(previous);
+            unlink(previous);
+        } else {
+            this.scheduledCount.incrementAndGet();
+        }
+
+        if (!insertAtPhase(entry, interval)) {
+            entry.cancelled = true;
+            synchronized (tracked) {
+                if (tracked.entry == entry) {
+                    tracked.entry = null;
+                    this.scheduledCount.decrementAndGet();
+                }
+            }
+            return false;
+        }
+        joinGroup(entry);
+        return true;
+    }
+
+    private static Entry entryOf(TrackedVillager tracked) {
+        synchronized (tracked) {
+            return tracked.entry;
+        }
+    }
+
+    /**
+     * Moves a scheduled villager to run every {@code newInterval} ticks, from the next tick of its
+     * phase at that interval, so villagers rescheduled together (a block change in a hall) stay
+     * spread out. Does nothing when the villager isn't on the wheel or already runs at
+     * {@code newInterval}.
+     */
+    void reschedule(@NotNull TrackedVillager tracked, long newInterval) {
+        Entry entry = entryOf(tracked);
+        if (entry == null || entry.suspended || entry.swept || entry.interval == newInterval) {
+            return;
+        }
+        unlink(entry);
+        insertAtPhase(entry, newInterval);
+    }
+
+    /**
+     * Doubles a scheduled villager's interval, clamped to {@code [floor, ceiling]}, and moves it to
+     * the next tick of its phase at that interval. Does nothing when the villager isn't on the wheel
+     * or the clamped interval is the one it already runs at.
+     */
+    void backOff(@NotNull TrackedVillager tracked, long floor, long ceiling) {
+        Entry entry = entryOf(tracked);
+        if (entry == null || entry.suspended || entry.swept) {
+            return;
+        }
+        long current = entry.interval;
+        long next = Math.max(floor, current > ceiling / 2 ? ceiling : current * 2);
+        if (next == current) {
+            return;
+        }
+        unlink(entry);
+        insertAtPhase(entry, next);
+    }
+
+    /**
+     * Takes a villager off the wheel.
+     *
+     * @return {@code true} if the villager was scheduled
+     */
+    boolean cancel(@NotNull TrackedVillager tracked) {
+        Entry entry;
+        synchronized (tracked) {
+            entry = tracked.entry;
+            tracked.entry = null;
+        }
+        if (entry == null) {
+            return false;
+        }
+        this.scheduledCount.decrementAndGet();
+        entry.cancelled = true;
+        leaveGroup(entry);
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Records that a villager's check gave the same answer as the last one. After {@code threshold}
+     * such checks in a row on the same block the villager counts as settled, and once every villager
+     * in its chunk has settled the chunk is suspended. A villager found on another block than at its
+     * previous such check was pushed or carried there, so its count starts over. Must run on the
+     * villager's thread.
+     */
+    void settle(@NotNull TrackedVillager tracked, int threshold) {
+        Entry entry = entryOf(tracked);
+        if (entry == null || threshold <= 0) {
+            return;
+        }
+        ChunkGroup group = entry.group;
+        if (group == null) {
+            return;
+        }
+        Location location = entry.villager.getLocation();
+        synchronized (group) {
+            if (entry.group != group) {
+                return;
+            }
+            if (!entry.stayedAt(location.getBlockX(), location.getBlockY(), location.getBlockZ())) {
+                entry.stableRuns = 0;
+                if (entry.settled) {
+                    entry.settled = false;
+                    group.settled--;
+                }
+                return;
+            }
+            if (entry.settled || ++entry.stableRuns < threshold) {
+                return;
+            }
+            entry.settled = true;
+            group.settled++;
+            if (group.suspended || group.settled < group.members.size()) {
+                return;
+            }
+            group.suspended = true;
+            for (Entry member : group.members) {
+                member.suspended = true;
+                unlink(member);
+            }
+            this.suspendedCount.addAndGet(group.members.size());
+            scheduleRestock(group);
+            if (this.plugin.isDebugging()) {
+                this.logger.info("[Debug] Suspended checks for " + group.members.size() + " villager(s) in quiescent chunk "
+                        + group.key.x() + ", " + group.key.z());
+            }
+        }
+    }
+
+    /**
+     * Records that a villager's check can't be skipped: it changed state, or its state is one that
+     * can change without a block update (it can wander). Resumes its chunk if it was suspended.
+     */
+    void unsettle(@NotNull TrackedVillager tracked) {
+        Entry entry = entryOf(tracked);
+        if (entry == null) {
+            return;
+        }
+        ChunkGroup group = entry.group;
+        if (group == null) {
+            return;
+        }
+        synchronized (group) {
+            if (entry.group != group) {
+                return;
+            }
+            entry.stableRuns = 0;
+            if (group.suspended) {
+                resumeGroup(group);
+            } else if (entry.settled) {
+                entry.settled = false;
+                group.settled--;
+            }
+        }
+    }
+
+    /**
+     * Resumes the chunk a villager was last seen in, if it is suspended.
+     */
+    void resume(@NotNull TrackedVillager tracked) {
+        Entry entry = entryOf(tracked);
+        if (entry == null || !entry.suspended) {
+            return;
+        }
+        ChunkGroup group = entry.group;
+        if (group == null) {
+            return;
+        }
+        synchronized (group) {
+            resumeGroup(group);
+        }
+    }
+
+    /**
+     * Puts every villager of a suspended chunk back on the wheel.
+     */
+    void resumeChunk(@NotNull UUID world, int chunkX, int chunkZ) {
+        ChunkGroup group = this.chunkGroups.get(new ChunkKey(world, chunkX, chunkZ));
+        if (group == null) {
+            return;
+        }
+        synchronized (group) {
+            resumeGroup(group);
+        }
+    }
+
+    /**
+     * Brings the next sweep of the chunk a villager belongs to forward to {@code interval} ticks
+     * from now, if its chunk is being swept and its next sweep is further out than that.
+     */
+    void hurrySweep(@NotNull TrackedVillager tracked, long interval) {
+        Entry entry = entryOf(tracked);
+        ChunkGroup group = entry == null ? null : entry.group;
+        if (group == null) {
+            return;
+        }
+        synchronized (group) {
+            if (!group.sweeping || group.suspended || group.retired || group.sweepInterval <= interval) {
+                return;
+            }
+            group.sweepInterval = interval;
+            safeCancel(group.sweepTask);
+            scheduleSweep(group, interval);
+        }
+    }
+
+    /**
+     * @return the villagers on the wheel whose last known chunk is the given one; a copy
+     */
+    @NotNull List<TrackedVillager> villagersIn(@NotNull UUID world, int chunkX, int chunkZ) {
+        ChunkGroup group = this.chunkGroups.get(new ChunkKey(world, chunkX, chunkZ));
+        if (group == null) {
+            return List.of();
+        }
+        synchronized (group) {
+            List<TrackedVillager> villagers = new ArrayList<>(group.members.size());
+            for (Entry entry : group.members) {
+                villagers.add(entry.tracked);
+            }
+            return villagers;
+        }
+    }
+
+    int suspendedCount() {
+        return this.suspendedCount.get();
+    }
+
+    int sweepingChunkCount() {
+        return this.sweepingCount.get();
+    }
+
+    boolean isScheduled(@NotNull TrackedVillager tracked) {
+        return entryOf(tracked) != null;
+    }
+
+    /**
+     * @return the interval a villager is currently checked at, its chunk's sweep interval if the
+     * chunk is swept, or {@code 0} if it isn't on the wheel
+     */
+    long intervalOf(@NotNull TrackedVillager tracked) {
+        Entry entry = entryOf(tracked);
+        if (entry == null) {
+            return 0L;
+        }
+        ChunkGroup group = entry.group;
+        if (entry.swept && group != null) {
+            synchronized (group) {
+                return group.sweepInterval;
+            }
+        }
+        return entry.interval;
+    }
+
+    int scheduledCount() {
+        return this.scheduledCount.get();
+    }
+
+    int cellCount() {
+        return this.cells.size();
+    }
+
+    TickLoadHistogram loadHistogram() {
+        return this.loadHistogram;
+    }
+
+    /**
+     * @return a delay in {@code [1, interval]} that is stable for a given UUID and uniformly spread
+     * across UUIDs; an entry runs on the ticks congruent to it modulo its interval
+     */
+    static long phaseOf(@NotNull UUID id, long interval) {
+        if (interval <= 1L) {
+            return 1L;
+        }
+        // Fibonacci hashing; the raw UUID bits of nearby spawns aren't guaranteed to be well mixed.
+        long mixed = (id.getMostSignificantBits() ^ id.getLeastSignificantBits()) * 0x9E3779B97F4A7C15L;
+        return 1L + Math.floorMod(mixed >>> 1, interval);
+    }
+
+    /**
+     * @return the delay in {@code [1, interval]} from {@code tick} to the next tick congruent to the
+     * villager's phase modulo {@code interval}
+     */
+    static long phaseDelay(@NotNull UUID id, long interval, long tick) {
+        if (interval <= 1L) {
+            return 1L;
+        }
+        long delay = Math.floorMod(phaseOf(id, interval) - tick, interval);
+        return delay == 0L ? interval : delay;
+    }
+
+    /**
+     * Cancels every driver and forgets every entry. The wheel can't be reused afterwards.
+     */
+    void shutdown() {
+        this.shutdown = true;
+        for (Cell cell : this.cells.values()) {
+            synchronized (cell) {
+                cell.retired = true;
+                safeCancel(cell.driver);
+                cell.driver = null;
+            }
+        }
+        this.cells.clear();
+        // Entries live in their chunk's group; one that hasn't joined yet sits in a retired cell.
+        for (ChunkGroup group : this.chunkGroups.values()) {
+            synchronized (group) {
+                group.retired = true;
+                safeCancel(group.sweepTask);
+                group.sweepTask = null;
+                safeCancel(group.restockTask);
+                group.restockTask = null;
+                for (Entry entry : group.members) {
+                    entry.cancelled = true;
+                }
+            }
+        }
+        this.chunkGroups.clear();
+        this.scheduledCount.set(0);
+        this.suspendedCount.set(0);
+        this.sweepingCount.set(0);
+    }
+
+    /**
+     * Re-anchors cells whose driver has stopped ticking, which on Folia happens once the anchor
+     * chunk unloads while other chunks of the cell stay loaded. Runs on the global region thread and
+     * only reads the chunk coordinates entries recorded on their own last run.
+     */
+    void superviseDrivers() {
+        if (this.shutdown) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Cell cell : this.cells.values()) {
+            synchronized (cell) {
+                if (cell.retired || cell.size == 0 || now - cell.lastRunNanos < STALE_DRIVER_NANOS) {
+                    continue;
+                }
+                Entry candidate = cell.anyEntry();
+                if (candidate == null
+                        || (candidate.chunkX == cell.anchorX && candidate.chunkZ == cell.anchorZ)) {
+                    continue;
+                }
+                if (this.plugin.isDebugging()) {
+                    this.logger.info("[Debug] Re-anchoring villager wheel cell " + cell.key + " from chunk "
+                            + cell.anchorX + ", " + cell.anchorZ + " to " + candidate.chunkX + ", " + candidate.chunkZ);
+                }
+                safeCancel(cell.driver);
+                cell.anchorX = candidate.chunkX;
+                cell.anchorZ = candidate.chunkZ;
+                cell.lastRunNanos = now;
+                startDriver(cell);
+            }
+        }
+    }
+
+    /**
+     * Links an entry into the wheel of the cell for its last known chunk, {@code delay} ticks after
+     * that cell's current tick (or a few ticks later, if a following slot is less occupied), to
+     * repeat every {@code interval} ticks from then on. Retries if it races with the cell being
+     * retired.
+     */
+    private boolean insert(Entry entry, long interval, long delay) {
+        return insert(entry, interval, delay, false);
+    }
+
+    /**
+     * Like {@link #insert(Entry, long, long)}, at the first tick after the cell's current one that
+     * falls on the entry's {@linkplain #phaseOf phase} for {@code interval}, so where an entry lands
+     * doesn't depend on when it was moved.
+     */
+    private boolean insertAtPhase(Entry entry, long interval) {
+        return insert(entry, interval, 0L, true);
+    }
+
+    private boolean insert(Entry entry, long interval, long delay, boolean atPhase) {
+        CellKey key = new CellKey(entry.villager.getWorld().getUID(), entry.chunkX >> CELL_SHIFT, entry.chunkZ >> CELL_SHIFT);
+        while (!this.shutdown) {
+            Cell cell = this.cells.computeIfAbsent(key, k -> new Cell(k, entry.villager.getWorld(), entry.chunkX, entry.chunkZ));
+            synchronized (cell) {
+                if (cell.retired) {
+                    this.cells.remove(key, cell);
+                    continue;
+                }
+                // A cell created after shutdown() walked the cells would otherwise get a live driver.
+                if (this.shutdown) {
+                    cell.retired = true;
+                    this.cells.remove(key, cell);
+                    return false;
+                }
+                if (cell.driver == null && !startDriver(cell)) {
+                    cell.retired = true;
+                    this.cells.remove(key, cell);
+                    return false;
+                }
+                entry.interval = interval;
+                if (atPhase) {
+                    delay = phaseDelay(entry.villager.getUniqueId(), interval, cell.tick);
+                }
+                entry.dueTick = cell.leastOccupied(cell.tick + delay, Math.min(PHASE_PROBE_SLOTS, interval));
+                cell.link(entry);
+                entry.cell = cell;
+                // Paired with cancel(): whichever of the two runs second sees the other's write.
+                if (entry.cancelled) {
+                    cell.unlink(entry);
+                    entry.cell = null;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds an entry to the group of its last known chunk. A chunk that gains a villager can't stay
+     * suspended, since the newcomer hasn't settled yet.
+     */
+    private void joinGroup(Entry entry) {
+        ChunkKey key = new ChunkKey(entry.villager.getWorld().getUID(), entry.chunkX, entry.chunkZ);
+        while (!this.shutdown && !entry.cancelled) {
+            ChunkGroup group = this.chunkGroups.computeIfAbsent(key, ChunkGroup::new);
+            synchronized (group) {
+                if (group.retired) {
+                    this.chunkGroups.remove(key, group);
+                    continue;
+                }
+                group.members.add(entry);
+                entry.group = group;
+                entry.stableRuns = 0;
+                entry.settled = false;
+                if (group.suspended) {
+                    resumeGroup(group);
+                }
+                if (group.sweeping) {
+                    entry.swept = true;
+                    unlink(entry);
+                } else if (this.sweepThreshold > 0 && group.members.size() >= this.sweepThreshold) {
+                    startSweep(group);
+                }
+                return;
+            }
+        }
+    }
+
+    private void leaveGroup(Entry entry) {
+        ChunkGroup group = entry.group;
+        if (group == null) {
+            return;
+        }
+        synchronized (group) {
+            if (entry.group != group) {
+                return;
+            }
+            group.members.remove(entry);
+            entry.group = null;
+            if (entry.settled) {
+                entry.settled = false;
+                group.settled--;
+            }
+            if (entry.suspended) {
+                entry.suspended = false;
+                this.suspendedCount.decrementAndGet();
+            }
+            entry.swept = false;
+            if (group.sweeping && group.members.size() <= this.sweepThreshold / 2) {
+                stopSweep(group);
+            }
+            if (group.members.isEmpty()) {
+                group.retired = true;
+                safeCancel(group.restockTask);
+                group.restockTask = null;
+                this.chunkGroups.remove(group.key, group);
+            }
+        }
+    }
+
+    /**
+     * Clears every member's settled streak and, if the group was suspended, re-inserts its entries at
+     * their phase so a large hall doesn't come due all at once. Must hold the group's monitor.
+     */
+    private void resumeGroup(ChunkGroup group) {
+        for (Entry member : group.members) {
+            member.stableRuns = 0;
+            member.settled = false;
+        }
+        group.settled = 0;
+        if (!group.suspended) {
+            return;
+        }
+        group.suspended = false;
+        group.restockGeneration++;
+        safeCancel(group.restockTask);
+        group.restockTask = null;
+        for (Entry member : group.members) {
+            if (!member.suspended) {
+                continue;
+            }
+            member.suspended = false;
+            this.suspendedCount.decrementAndGet();
+            if (!member.cancelled && !group.sweeping) {
+                // A reschedule racing the suspension may have linked it again; never link twice.
+                unlink(member);
+                insertAtPhase(member, member.interval);
+            }
+        }
+        if (group.sweeping) {
+            scheduleSweep(group, phaseOf(new UUID(group.key.x(), group.key.z()), group.sweepInterval));
+        }
+        if (this.plugin.isDebugging()) {
+            this.logger.info("[Debug] Resumed checks for " + group.members.size() + " villager(s) in chunk "
+                    + group.key.x() + ", " + group.key.z());
+        }
+    }
+
+    /**
+     * Takes a dense chunk's entries off the wheel and starts sweeping it, at the shortest interval
+     * any of its villagers ran at. Must hold the group's monitor.
+     */
+    private void startSweep(ChunkGroup group) {
+        long interval = Long.MAX_VALUE;
+        for (Entry member : group.members) {
+            interval = Math.min(interval, member.interval);
+            member.swept = true;
+            unlink(member);
+        }
+        group.sweeping = true;
+        group.sweepInterval = interval;
+        this.sweepingCount.incrementAndGet();
+        if (!group.suspended) {
+            scheduleSweep(group, interval);
+        }
+        if (this.plugin.isDebugging()) {
+            this.logger.info("[Debug] Chunk " + group.key.x() + ", " + group.key.z() + " holds " + group.members.size()
+                    + " villagers; switching it to a chunk sweep every " + interval + " ticks");
+        }
+    }
+
+    /**
+     * Stops sweeping a chunk that has thinned out and puts its entries back on the wheel at their
+     * phase. Must hold the group's monitor.
+     */
+    private void stopSweep(ChunkGroup group) {
+        group.sweeping = false;
+        group.sweepGeneration++;
+        safeCancel(group.sweepTask);
+        group.sweepTask = null;
+        this.sweepingCount.decrementAndGet();
+        for (Entry member : group.members) {
+            member.swept = false;
+            // Suspended members go back on the wheel when the chunk resumes.
+            if (!member.suspended && !member.cancelled) {
+                member.interval = group.sweepInterval;
+                insertAtPhase(member, member.interval);
+            }
+        }
+        if (this.plugin.isDebugging()) {
+            this.logger.info("[Debug] Chunk " + group.key.x() + ", " + group.key.z() + " thinned out to "
+                    + group.members.size() + " villagers; back to per-villager checks");
+        }
+    }
+
+    /**
+     * Registers the next sweep of a chunk at the chunk itself. Must hold the group's monitor.
+     */
+    private void scheduleSweep(ChunkGroup group, long delay) {
+        World world = Bukkit.getWorld(group.key.world());
+        if (world == null || this.shutdown) {
+            return;
+        }
+        int generation = ++group.sweepGeneration;
+        try {
+            group.sweepTask = Bukkit.getRegionScheduler().runDelayed(
+                    this.plugin,
+                    world,
+                    group.key.x(),
+                    group.key.z(),
+                    SentryTaskWrapper.wrap((task) -> this.sweep(group, generation)),
+                    Math.max(1L, delay * this.governor.intervalMultiplier())
+            );
+        } catch (IllegalPluginAccessException e) {
+            group.sweepTask = null;
+        }
+    }
+
+    /**
+     * Runs one sweep of a chunk: hands its villagers to the sweeper, moves any that left the chunk
+     * to where they are now and schedules the next sweep at the interval the sweeper returned.
+     * <p>
+     * A sweep is charged to the same {@link EvaluationBudget} window as the cells' checks. One that
+     * comes due with the window already spent waits a tick, but only once in a row, so a chunk can't
+     * be starved by checks that run before it.
+     */
+    private void sweep(ChunkGroup group, int generation) {
+        List<Entry> members;
+        long interval;
+        synchronized (group) {
+            if (group.sweepGeneration != generation || !group.sweeping || group.suspended || group.retired || this.shutdown) {
+                return;
+            }
+            group.sweepTask = null;
+            if (!group.sweepDeferred && !this.budget.hasRemaining()) {
+                group.sweepDeferred = true;
+                scheduleSweep(group, 1L);
+                return;
+            }
+            group.sweepDeferred = false;
+            members = new ArrayList<>(group.members);
+            interval = group.sweepInterval;
+        }
+
+        List<TrackedVillager> villagers = new ArrayList<>(members.size());
+        List<Entry> strays = new ArrayList<>();
+        for (Entry member : members) {
+            if (member.cancelled) {
+                continue;
+            }
+            if (Bukkit.isOwnedByCurrentRegion(member.villager)) {
+                villagers.add(member.tracked);
+            } else {
+                strays.add(member);
+            }
+        }
+        long start = System.nanoTime();
+        long next = villagers.isEmpty() ? interval : this.sweeper.sweep(villagers, interval);
+        this.budget.charge(System.nanoTime() - start);
+
+        for (Entry member : members) {
+            if (member.cancelled || !member.villager.isValid()) {
+                continue;
+            }
+            if (strays.contains(member)) {
+                // Wandered into another region's chunk; move it from the thread that owns it now.
+                member.villager.getScheduler().run(this.plugin, SentryTaskWrapper.wrap((task) -> this.relocate(member)), null);
+            } else {
+                relocate(member);
+            }
+        }
+
+        synchronized (group) {
+            group.sweepInterval = next;
+            if (group.sweepGeneration == generation && group.sweeping && !group.suspended && !group.retired) {
+                scheduleSweep(group, next);
+            }
+        }
+    }
+
+    /**
+     * Registers the next restock of a suspended chunk at the chunk itself. Must hold the group's
+     * monitor.
+     */
+    private void scheduleRestock(ChunkGroup group) {
+        World world = Bukkit.getWorld(group.key.world());
+        if (world == null || this.shutdown) {
+            return;
+        }
+        int generation = ++group.restockGeneration;
+        try {
+            group.restockTask = Bukkit.getRegionScheduler().runDelayed(
+                    this.plugin,
+                    world,
+                    group.key.x(),
+                    group.key.z(),
+                    SentryTaskWrapper.wrap((task) -> this.restock(group, generation)),
+                    Math.max(1L, this.restockPeriod.getAsLong())
+            );
+        } catch (IllegalPluginAccessException e) {
+            group.restockTask = null;
+        }
+    }
+
+    /**
+     * Hands every villager of a suspended chunk to the restocker, from the thread that owns it, and
+     * schedules the next restock while the chunk stays suspended.
+     */
+    private void restock(ChunkGroup group, int generation) {
+        List<Entry> members;
+        synchronized (group) {
+            if (group.restockGeneration != generation || !group.suspended || group.retired || this.shutdown) {
+                return;
+            }
+            group.restockTask = null;
+            members = new ArrayList<>(group.members);
+        }
+
+        long start = System.nanoTime();
+        for (Entry member : members) {
+            if (member.cancelled || !member.villager.isValid()) {
+                continue;
+            }
+            if (Bukkit.isOwnedByCurrentRegion(member.villager)) {
+                this.restocker.accept(member.tracked);
+            } else {
+                member.villager.getScheduler().run(this.plugin, SentryTaskWrapper.wrap((task) -> {
+                    if (!member.cancelled && !this.shutdown) {
+                        this.restocker.accept(member.tracked);
+                    }
+                }), null);
+            }
+        }
+        this.budget.charge(System.nanoTime() - start);
+
+        synchronized (group) {
+            if (group.restockGeneration == generation && group.suspended && !group.retired) {
+                scheduleRestock(group);
+            }
+        }
+    }
+
+    /**
+     * Moves an entry to the group of the chunk its villager stands in now, if that changed. Runs on
+     * the villager's own thread.
+     */
+    private void relocate(Entry entry) {
+        if (entry.cancelled || this.shutdown) {
+            return;
+        }
+        Location location = entry.villager.getLocation();
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        if (chunkX == entry.chunkX && chunkZ == entry.chunkZ) {
+            return;
+        }
+        leaveGroup(entry);
+        entry.chunkX = chunkX;
+        entry.chunkZ = chunkZ;
+        unlink(entry);
+        insertAtPhase(entry, entry.interval);
+        joinGroup(entry);
+    }
+
+    private void unlink(Entry entry) {
+        Cell cell = entry.cell;
+        if (cell == null) {
+            return;
+        }
+        synchronized (cell) {
+            if (entry.cell == cell) {
+                cell.unlink(entry);
+                entry.cell = null;
+            }
+        }
+    }
+
+    /**
+     * Registers the cell's repeating driver at its anchor chunk. Must hold the cell's monitor.
+     */
+    private boolean startDriver(Cell cell) {
+        try {
+            cell.driver = Bukkit.getRegionScheduler().runAtFixedRate(
+                    this.plugin,
+                    cell.world,
+                    cell.anchorX,
+                    cell.anchorZ,
+                    SentryTaskWrapper.wrap((task) -> this.tickCell(cell, task)),
+                    1L,
+                    1L
+            );
+            return true;
+        } catch (IllegalPluginAccessException e) {
+            cell.driver = null;
+            return false;
+        }
+    }
+
+    /**
+     * Advances a cell's wheel by one tick and runs every entry that has come due. A due entry leaves
+     * its slot for the cell's carry-over queue and is re-armed one interval ahead right before it
+     * runs, so a transition's reschedule can move it again.
+     * <p>
+     * Runs are charged to the thread's {@link EvaluationBudget} window for the current server tick,
+     * shared with every other cell and sweep on the thread. Runs stop once it is spent; the rest stay
+     * queued, off the wheel, and run first on the cell's next tick, with their next check counted
+     * from when they actually ran. Every tick runs at least one entry so a cell can't be starved by
+     * cells ticking before it on the same thread.
+     * <p>
+     * While the {@link LoadGovernor} is shedding load, entries are re-armed at a multiple of their
+     * interval; the stretch ends with each entry's first run after the governor recovers.
+     */
+    private void tickCell(Cell cell, ScheduledTask task) {
+        List<Entry> due;
+        synchronized (cell) {
+            // A superseded driver (re-anchored or retired cell) may still fire once on its old region.
+            if (cell.driver != task || cell.retired) {
+                task.cancel();
+                return;
+            }
+            if (this.shutdown) {
+                cell.retired = true;
+                task.cancel();
+                cell.driver = null;
+                return;
+            }
+            long now = System.nanoTime();
+            this.governor.recordDriverPeriod(now - cell.lastRunNanos);
+            cell.lastRunNanos = now;
+            if (cell.size == 0) {
+                cell.retired = true;
+                task.cancel();
+                cell.driver = null;
+                this.cells.remove(cell.key, cell);
+                return;
+            }
+            long tick = ++cell.tick;
+            int slot = (int) (tick & SLOT_MASK);
+            Entry e = cell.slots[slot];
+            while (e != null) {
+                Entry next = e.next;
+                if (e.dueTick <= tick) {
+                    cell.carry(e);
+                }
+                e = next;
+            }
+            due = cell.carryOver.isEmpty() ? List.of() : new ArrayList<>(cell.carryOver);
+        }
+        if (due.isEmpty()) {
+            this.loadHistogram.record(0);
+            return;
+        }
+
+        int ran = 0;
+        int index = 0;
+        for (; index < due.size() && !this.shutdown; index++) {
+            if (ran > 0 && !this.budget.hasRemaining()) {
+                break;
+            }
+            Entry entry = due.get(index);
+            if (entry.cancelled) {
+                continue;
+            }
+            synchronized (cell) {
+                // Cancelled, rescheduled or moved to another cell while it waited.
+                if (entry.cell != cell || !cell.rearm(entry, this.governor.intervalMultiplier())) {
+                    continue;
+                }
+            }
+            long start = System.nanoTime();
+            run(entry);
+            this.budget.charge(System.nanoTime() - start);
+            ran++;
+        }
+        this.loadHistogram.record(ran);
+        if (index < due.size() && this.plugin.isDebugging()) {
+            this.logger.info("[Debug] Evaluation budget spent; deferred " + (due.size() - index)
+                    + " villager check(s) in cell " + cell.key + " to the next tick");
+        }
+    }
+
+    /**
+     * @return how many due checks are waiting in carry-over queues for budget
+     */
+    int carriedOverCount() {
+        int count = 0;
+        for (Cell cell : this.cells.values()) {
+            synchronized (cell) {
+                count += cell.carryOver.size();
+            }
+        }
+        return count;
+    }
+
+    private void run(Entry entry) {
+        Villager villager = entry.villager;
+        if (!Bukkit.isOwnedByCurrentRegion(villager)) {
+            // The villager wandered into a chunk owned by another region; let its own scheduler run
+            // this check and move the entry once it's there.
+            ScheduledTask handoff = villager.getScheduler().run(this.plugin, SentryTaskWrapper.wrap((task) -> {
+                if (!entry.cancelled && !this.shutdown) {
+                    this.processAndRelocate(entry);
+                }
+            }), null);
+            if (handoff == null) {
+                // Entity already retired; its remove event untracks it.
+                this.cancel(entry.tracked);
+            }
+            return;
+        }
+        this.processAndRelocate(entry);
+    }
+
+    private void processAndRelocate(Entry entry) {
+        this.processor.accept(entry.tracked);
+        follow(entry);
+    }
+
+    /**
+     * Moves an entry to the group (and, if needed, the cell) of the chunk its villager now stands in.
+     * Must run on the villager's thread.
+     */
+    private void follow(Entry entry) {
+        Villager villager = entry.villager;
+        // A suspended entry is off the wheel on purpose; it moves chunks through resume().
+        if (entry.cancelled || entry.suspended || !villager.isValid()) {
+            return;
+        }
+        Location location = villager.getLocation();
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        if (chunkX == entry.chunkX && chunkZ == entry.chunkZ) {
+            return;
+        }
+        leaveGroup(entry);
+        entry.chunkX = chunkX;
+        entry.chunkZ = chunkZ;
+        joinGroup(entry);
+        if (entry.swept) {
+            return;
+        }
+        Cell cell = entry.cell;
+        if (cell != null && (chunkX >> CELL_SHIFT) == cell.key.cellX() && (chunkZ >> CELL_SHIFT) == cell.key.cellZ()
+                && villager.getWorld().getUID().equals(cell.key.world())) {
+            return;
+        }
+        long interval;
+        long delay;
+        if (cell == null) {
+            interval = entry.interval;
+            delay = interval;
+        } else {
+            synchronized (cell) {
+                interval = entry.interval;
+                delay = Math.max(1L, entry.dueTick - cell.tick);
+            }
+        }
+        unlink(entry);
+        insert(entry, interval, delay);
+    }
+
+    private void safeCancel(ScheduledTask task) {
+        if (task == null) {
+            return;
+        }
+        try {
+            task.cancel();
+        } catch (Throwable t) {
+            if (this.plugin.isDebugging()) {
+                this.logger.fine("Failed to cancel villager wheel driver: " + t.getMessage());
+            }
+        }
+    }
+
+    private record CellKey(UUID world, int cellX, int cellZ) {
+    }
+
+    private record ChunkKey(UUID world, int x, int z) {
+    }
+
+    /**
+     * The entries last seen in one chunk and how many of them have settled. Guarded by the group's
+     * monitor, which is always taken before any cell's.
+     */
+    static final class ChunkGroup {
+        final ChunkKey key;
+        final Set<Entry> members = new HashSet<>();
+        int settled;
+        boolean suspended;
+        boolean retired;
+        boolean sweeping;
+        long sweepInterval;
+        int sweepGeneration;
+        // The last sweep found the budget spent and waited a tick.
+        boolean sweepDeferred;
+        ScheduledTask sweepTask;
+        int restockGeneration;
+        ScheduledTask restockTask;
+
+        ChunkGroup(ChunkKey key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * A scheduled villager. Linkage and timing fields are guarded by the owning cell's monitor.
+     */
+    static final class Entry {
+        final TrackedVillager tracked;
+        final Villager villager;
+        long interval;
+        long dueTick;
+        volatile int chunkX;
+        volatile int chunkZ;
+        volatile Cell cell;
+        volatile boolean cancelled;
+        volatile ChunkGroup group;
+        volatile boolean suspended;
+        volatile boolean swept;
+        int stableRuns;
+        boolean settled;
+        // Off the wheel and waiting in the cell's carry-over queue.
+        boolean carried;
+        // The block the villager stood on at its last settling check; guarded by the group's monitor.
+        int blockX;
+        int blockY;
+        int blockZ;
+        Entry prev;
+        Entry next;
+        int slot = -1;
+
+        Entry(TrackedVillager tracked, long interval, int blockX, int blockY, int blockZ) {
+            this.tracked = tracked;
+            this.villager = tracked.villager();
+            this.interval = interval;
+            this.chunkX = blockX >> 4;
+            this.chunkZ = blockZ >> 4;
+            this.blockX = blockX;
+            this.blockY = blockY;
+            this.blockZ = blockZ;
+        }
+
+        /**
+         * Records the block the villager stands on now.
+         *
+         * @return whether it is the one it stood on last time
+         */
+        boolean stayedAt(int x, int y, int z) {
+            boolean stayed = x == this.blockX && y == this.blockY && z == this.blockZ;
+            this.blockX = x;
+            this.blockY = y;
+            this.blockZ = z;
+            return stayed;
+        }
+    }
+
+    /**
+     * One region-sized cell: its wheel of intrusive per-slot lists, its tick counter, the due checks
+     * still waiting for budget and its driver. An entry is either in a slot or in the carry-over
+     * queue, never both, and {@code size} counts both. Guarded by the cell's monitor.
+     */
+    static final class Cell {
+        final CellKey key;
+        final World world;
+        final Entry[] slots = new Entry[SLOT_COUNT];
+        final int[] slotSizes = new int[SLOT_COUNT];
+        final Set<Entry> carryOver = new LinkedHashSet<>();
+        int anchorX;
+        int anchorZ;
+        long tick;
+        int size;
+        long lastRunNanos = System.nanoTime();
+        ScheduledTask driver;
+        boolean retired;
+
+        Cell(CellKey key, World world, int anchorX, int anchorZ) {
+            this.key = key;
+            this.world = world;
+            this.anchorX = anchorX;
+            this.anchorZ = anchorZ;
+        }
+
+        void link(Entry e) {
+            int slot = (int) (e.dueTick & SLOT_MASK);
+            Entry head = this.slots[slot];
+            e.prev = null;
+            e.next = head;
+            if (head != null) {
+                head.prev = e;
+            }
+            this.slots[slot] = e;
+            e.slot = slot;
+            this.slotSizes[slot]++;
+            this.size++;
+        }
+
+        /**
+         * Takes an entry off the wheel or out of the carry-over queue, wherever it is.
+         */
+        void unlink(Entry e) {
+            if (e.carried) {
+                this.carryOver.remove(e);
+                e.carried = false;
+                this.size--;
+                return;
+            }
+            if (e.slot < 0) {
+                return;
+            }
+            if (e.prev != null) {
+                e.prev.next = e.next;
+            } else {
+                this.slots[e.slot] = e.next;
+            }
+            if (e.next != null) {
+                e.next.prev = e.prev;
+            }
+            this.slotSizes[e.slot]--;
+            e.prev = null;
+            e.next = null;
+            e.slot = -1;
+            this.size--;
+        }
+
+        /**
+         * Moves a due entry from its slot to the back of the carry-over queue.
+         */
+        void carry(Entry e) {
+            unlink(e);
+            e.carried = true;
+            this.carryOver.add(e);
+            this.size++;
+        }
+
+        /**
+         * Puts a carried entry back on the wheel {@code interval * stretch} ticks after the current
+         * tick, as it is about to run.
+         *
+         * @return {@code false} if the entry is no longer carried here
+         */
+        boolean rearm(Entry e, long stretch) {
+            if (!e.carried) {
+                return false;
+            }
+            unlink(e);
+            e.dueTick = this.tick + e.interval * stretch;
+            link(e);
+            return true;
+        }
+
+        /**
+         * @return the due tick among {@code [dueTick, dueTick + width)} whose slot holds the fewest
+         * entries, preferring the earliest on ties
+         */
+        long leastOccupied(long dueTick, long width) {
+            long best = dueTick;
+            int bestSize = this.slotSizes[(int) (dueTick & SLOT_MASK)];
+            for (long candidate = dueTick + 1; candidate < dueTick + width && bestSize > 0; candidate++) {
+                int size = this.slotSizes[(int) (candidate & SLOT_MASK)];
+                if (size < bestSize) {
+                    best = candidate;
+                    bestSize = size;
+                }
+            }
+            return best;
+        }
+
+        Entry anyEntry() {
+            if (!this.carryOver.isEmpty()) {
+                return this.carryOver.iterator().next();
+            }
+            for (Entry head : this.slots) {
+                if (head != null) {
+                    return head;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -1,20 +1,41 @@
 package dev.mja00.villagerLobotomizer.listeners;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
-import org.bukkit.Bukkit;
-import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.Openable;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Villager;
+import org.bukkit.event.Event;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockRedstoneEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+import org.bukkit.event.world.StructureGrowEvent;
 import org.bukkit.inventory.MerchantInventory;
 
 import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
@@ -31,17 +52,11 @@ public class EntityListener implements Listener {
 
     public EntityListener(VillagerLobotomizer plugin) {
         this.plugin = plugin;
-        for (World world : Bukkit.getWorlds()) {
-            for (Entity entity : world.getEntities()) {
-                if (entity instanceof Villager) {
-                    plugin.getStorage().addVillager((Villager)entity);
-                }
-            }
-        }
     }
 
     @EventHandler
     public final void onLoad(ChunkLoadEvent event) {
+        this.plugin.getStorage().handleChunkLoad(event.getChunk());
         if (this.plugin.isChunkDebugging()) {
             for (Entity entity : event.getChunk().getEntities()) {
                 if (entity instanceof Villager) {
@@ -53,6 +68,7 @@ public class EntityListener implements Listener {
 
     @EventHandler
     public final void onUnload(ChunkUnloadEvent event) {
+        this.plugin.getStorage().handleChunkUnload(event.getChunk());
         if (this.plugin.isChunkDebugging()) {
             for (Entity entity : event.getChunk().getEntities()) {
                 if (entity instanceof Villager) {
@@ -62,10 +78,35 @@ public class EntityListener implements Listener {
         }
     }
 
-    // Realistically only these two events are ever used. The others are for debugging purposes
+    // Realistically only these events are ever used. The others are for debugging purposes
+    @EventHandler
+    public final void onEntitiesLoad(EntitiesLoadEvent event) {
+        List<Villager> villagers = new ArrayList<>();
+        for (Entity entity : event.getEntities()) {
+            if (entity instanceof Villager villager) {
+                villagers.add(villager);
+            }
+        }
+        this.plugin.getStorage().admitChunk(event.getChunk(), villagers);
+    }
+
+    @EventHandler
+    public final void onEntitiesUnload(EntitiesUnloadEvent event) {
+        List<Villager> villagers = new ArrayList<>();
+        for (Entity entity : event.getEntities()) {
+            if (entity instanceof Villager villager) {
+                villagers.add(villager);
+            }
+        }
+        if (!villagers.isEmpty()) {
+            this.plugin.getStorage().unloadChunk(event.getChunk(), villagers);
+        }
+    }
+
     @EventHandler
     public final void onAdd(EntityAddToWorldEvent event) {
-        if (event.getEntity() instanceof Villager) {
+        // Villagers arriving with their chunk are admitted as a batch by onEntitiesLoad instead.
+        if (event.getEntity() instanceof Villager && event.getEntity().getChunk().isEntitiesLoaded()) {
             if (this.plugin.isDebugging()) {
                 this.plugin.getLogger().log(Level.INFO, "[Debug] Caught {0} for villager {1} ({2}); The villager should be added to the storage", new Object[]{event.getEventName(), event.getEntity(), event.getEntity().getUniqueId()});
             }
@@ -94,6 +135,99 @@ public class EntityListener implements Listener {
         this.plugin.getStorage().handleBlockChange(event.getBlock());
     }
 
+    // Block changes that don't warrant a chunk pass of their own, but must stop villagers next to
+    // them from reusing their last decision.
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public final void onPistonExtend(BlockPistonExtendEvent event) {
+        handlePistonMove(event.getBlock(), event.getDirection(), event.getBlocks());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public final void onPistonRetract(BlockPistonRetractEvent event) {
+        handlePistonMove(event.getBlock(), event.getDirection(), event.getBlocks());
+    }
+
+    private void handlePistonMove(Block piston, BlockFace direction, List<Block> moved) {
+        // Covers the piston head, whose block is next to the piston either way.
+        this.plugin.getStorage().handleBlockUpdate(piston.getRelative(direction));
+        for (Block block : moved) {
+            this.plugin.getStorage().handleBlockUpdate(block);
+            this.plugin.getStorage().handleBlockUpdate(block.getRelative(direction));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public final void onBlockExplode(BlockExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            this.plugin.getStorage().handleBlockUpdate(block);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public final void onEntityExplode(EntityExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            this.plugin.getStorage().handleBlockUpdate(block);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public final void onFlow(BlockFromToEvent event) {
+        this.plugin.getStorage().handleBlockUpdate(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public final void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        this.plugin.getStorage().handleBlockUpdate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public final void onBurn(BlockBurnEvent event) {
+        this.plugin.getStorage().handleBlockUpdate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public final void onFade(BlockFadeEvent event) {
+        this.plugin.getStorage().handleBlockUpdate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public final void onForm(BlockFormEvent event) {
+        this.plugin.getStorage().handleBlockUpdate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public final void onGrow(StructureGrowEvent event) {
+        for (BlockState state : event.getBlocks()) {
+            this.plugin.getStorage().handleBlockUpdate(state.getBlock());
+        }
+    }
+
+    // Powered doors, gates and trapdoors open and close.
+    @EventHandler(priority = EventPriority.MONITOR)
+    public final void onRedstone(BlockRedstoneEvent event) {
+        if ((event.getOldCurrent() == 0) != (event.getNewCurrent() == 0)) {
+            this.plugin.getStorage().handleBlockUpdate(event.getBlock());
+        }
+    }
+
+    // Doors, gates and trapdoors opened by hand.
+    @EventHandler(priority = EventPriority.MONITOR)
+    public final void onInteractBlock(PlayerInteractEvent event) {
+        Block block = event.getClickedBlock();
+        if (event.getAction() == Action.RIGHT_CLICK_BLOCK && block != null && event.useInteractedBlock() != Event.Result.DENY
+                && block.getBlockData() instanceof Openable) {
+            this.plugin.getStorage().handleBlockUpdate(block);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public final void onInteract(PlayerInteractEntityEvent event) {
+        if (!(event.getRightClicked() instanceof Villager villager)) {
+            return;
+        }
+        this.plugin.getStorage().handleVillagerInteract(villager);
+    }
+
     /**
      * Prevents players from trading with unlobotomized villagers if the prevention feature is enabled.
      *
@@ -38,6 +38,24 @@ public final class VillagerActivityPolicy {
         this.blocks = blocks;
     }
 
+    /**
+     * Checks whether another policy was built from the same settings, and so reaches the same
+     * decision as this one for every villager.
+     *
+     * @param other the policy to compare against
+     * @return {@code true} if both policies decide alike
+     */
+    public boolean decidesLike(VillagerActivityPolicy other) {
+        return this.lobotomizePassengers == other.lobotomizePassengers
+                && this.onlyProfessions == other.onlyProfessions
+                && this.onlyWithExperience == other.onlyWithExperience
+                && this.checkRoof == other.checkRoof
+                && this.ignoreStuckInDoors == other.ignoreStuckInDoors
+                && this.ignoreNonSolidBlocks == other.ignoreNonSolidBlocks
+                && this.exemptNames.equals(other.exemptNames)
+                && this.blocks.equals(other.blocks);
+    }
+
     /**
      * Determines whether a villager should be active based on its state and environment.
      *
@@ -46,41 +64,108 @@ public final class VillagerActivityPolicy {
      * @return {@code true} if the villager should be active, {@code false} if it should be lobotomized
      */
     public boolean shouldBeActive(VillagerState v, BlockGrid grid) {
-        String name = v.name();
+        return decide(flagsOf(v.name(), v.swimming(), v.sleeping(), v.hasVehicle(), v.professionNone()),
+                v.experience(), v.blockX(), v.blockY(), v.blockZ(), grid);
+    }
+
+    /**
+     * Same as {@link #shouldBeActive(VillagerState, BlockGrid)}, for a villager whose name and
+     * conditions were already reduced by {@link #flagsOf}, so a check doesn't need a
+     * {@link VillagerState} at all.
+     *
+     * @param flags what {@link #flagsOf} made of the villager, for this policy
+     */
+    public boolean shouldBeActive(int flags, int experience, int blockX, int blockY, int blockZ, BlockGrid grid) {
+        return decide(flags, experience, blockX, blockY, blockZ, grid);
+    }
+
+    /**
+     * Reduces a villager's name and conditions to what this policy's decision depends on. Two
+     * villagers with the same flags, experience and block get the same decision from this policy,
+     * which makes the flags usable as part of a key for remembering decisions.
+     *
+     * @param name the plain lower-case custom name, or {@code ""}
+     */
+    public int flagsOf(String name, boolean swimming, boolean sleeping, boolean hasVehicle, boolean professionNone) {
+        return nameFlags(name)
+                | (swimming ? VillagerBatch.SWIMMING : 0)
+                | (sleeping ? VillagerBatch.SLEEPING : 0)
+                | (hasVehicle ? VillagerBatch.VEHICLE : 0)
+                | (professionNone ? VillagerBatch.PROFESSION_NONE : 0);
+    }
+
+    /**
+     * Decides every villager of a batch, reaching the same decision for each as
+     * {@link #shouldBeActive(VillagerState, BlockGrid)} would.
+     *
+     * @param batch the villagers, captured for this policy
+     * @param grid the surrounding block grid
+     * @param decisions receives each villager's decision at its index in the batch
+     * @throws IllegalArgumentException if the batch was captured for another policy
+     */
+    public void shouldBeActive(VillagerBatch batch, BlockGrid grid, boolean[] decisions) {
+        if (batch.policy != this) {
+            throw new IllegalArgumentException("Batch was captured for another policy");
+        }
+        int size = batch.size();
+        int[] blockX = batch.blockX;
+        int[] blockY = batch.blockY;
+        int[] blockZ = batch.blockZ;
+        int[] experience = batch.experience;
+        byte[] flags = batch.flags;
+        for (int i = 0; i < size; i++) {
+            decisions[i] = decide(flags[i], experience[i], blockX[i], blockY[i], blockZ[i], grid);
+        }
+    }
+
+    /**
+     * @return what the name rules make of a villager's plain lower-case name, as
+     * {@link VillagerBatch} name flags
+     */
+    private int nameFlags(String name) {
         if (name.contains("nobrain")) {
-            return false;
+            return VillagerBatch.NAME_NOBRAIN;
         } else if (this.exemptNames.contains(name)) {
+            return VillagerBatch.NAME_EXEMPT;
+        }
+        return 0;
+    }
+
+    private boolean decide(int flags, int experience, int x, int y, int z, BlockGrid grid) {
+        if ((flags & VillagerBatch.NAME_NOBRAIN) != 0) {
+            return false;
+        } else if ((flags & VillagerBatch.NAME_EXEMPT) != 0) {
             return true;
         }
 
-        if (v.swimming()) {
+        if ((flags & VillagerBatch.SWIMMING) != 0) {
             return true;
         }
 
-        BlockSnapshot feet = grid.at(v.blockX(), v.blockY(), v.blockZ());
-        BlockSnapshot head = grid.at(v.blockX(), v.blockY() + 1, v.blockZ());
+        BlockSnapshot feet = grid.at(x, y, z);
+        BlockSnapshot head = grid.at(x, y + 1, z);
         if (isWater(feet) || isWater(head)) {
             return true;
         }
 
-        if (v.sleeping()) {
+        if ((flags & VillagerBatch.SLEEPING) != 0) {
             return true;
         }
 
-        if (this.lobotomizePassengers && v.hasVehicle()) {
+        if (this.lobotomizePassengers && (flags & VillagerBatch.VEHICLE) != 0) {
             return false;
         }
 
-        if (this.onlyProfessions && v.professionNone()) {
+        if (this.onlyProfessions && (flags & VillagerBatch.PROFESSION_NONE) != 0) {
             return true;
         }
 
-        if (this.onlyWithExperience && v.experience() == 0) {
+        if (this.onlyWithExperience && experience == 0) {
             return true;
         }
 
-        BlockSnapshot floor = grid.at(v.blockX(), v.blockY() - 1, v.blockZ());
-        BlockSnapshot roof = grid.at(v.blockX(), v.blockY() + 2, v.blockZ());
+        BlockSnapshot floor = grid.at(x, y - 1, z);
+        BlockSnapshot roof = grid.at(x, y + 2, z);
 
         if (this.checkRoof && (roof == null || roof.type() == Material.AIR)) {
             return true;
@@ -90,7 +175,7 @@ public final class VillagerActivityPolicy {
         boolean hasRoof = floorMaterial == Material.HONEY_BLOCK
                 || testImpassable(this.blocks.impassableAll(), roof, false);
 
-        return canMoveCardinally(grid, v.blockX(), v.blockY(), v.blockZ(), hasRoof);
+        return canMoveCardinally(grid, x, y, z, hasRoof);
     }
 
     /**
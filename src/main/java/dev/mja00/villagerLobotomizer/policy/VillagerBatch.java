@@ -0,0 +1,97 @@
+package dev.mja00.villagerLobotomizer.policy;
+
+/**
+ * The villagers of one chunk laid out column by column, so
+ * {@link VillagerActivityPolicy#shouldBeActive(VillagerBatch, BlockGrid, boolean[])} can decide all
+ * of them in one loop over primitive arrays. Holds the same properties as {@link VillagerState},
+ * except that the name is reduced to what the policy's name rules make of it as the villager is
+ * added, so evaluating the batch never looks at a string.
+ * <p>
+ * A batch is captured for one policy and can only be evaluated by it. Not thread-safe; capture it
+ * on one thread and hand it over to evaluate it on another.
+ */
+public final class VillagerBatch {
+    static final int SWIMMING = 1;
+    static final int SLEEPING = 1 << 1;
+    static final int VEHICLE = 1 << 2;
+    static final int PROFESSION_NONE = 1 << 3;
+    // Name verdicts: "nobrain" in the name, or one of the exempt names.
+    static final int NAME_NOBRAIN = 1 << 4;
+    static final int NAME_EXEMPT = 1 << 5;
+
+    final VillagerActivityPolicy policy;
+    final int[] blockX;
+    final int[] blockY;
+    final int[] blockZ;
+    final int[] experience;
+    final byte[] flags;
+    private int size;
+
+    /**
+     * @param policy   the policy that will evaluate this batch
+     * @param capacity how many villagers it can hold
+     */
+    public VillagerBatch(VillagerActivityPolicy policy, int capacity) {
+        this.policy = policy;
+        this.blockX = new int[capacity];
+        this.blockY = new int[capacity];
+        this.blockZ = new int[capacity];
+        this.experience = new int[capacity];
+        this.flags = new byte[capacity];
+    }
+
+    /**
+     * Adds a villager.
+     *
+     * @return its index, which is where its decision will be written
+     * @throws IllegalStateException if the batch is full
+     */
+    public int add(VillagerState v) {
+        return add(this.policy.flagsOf(v.name(), v.swimming(), v.sleeping(), v.hasVehicle(), v.professionNone()),
+                v.experience(), v.blockX(), v.blockY(), v.blockZ());
+    }
+
+    /**
+     * Adds a villager whose name and conditions were already reduced to flags.
+     *
+     * @param flags what {@link VillagerActivityPolicy#flagsOf} of this batch's policy made of it
+     * @return its index, which is where its decision will be written
+     * @throws IllegalStateException if the batch is full
+     */
+    public int add(int flags, int experience, int blockX, int blockY, int blockZ) {
+        if (this.size == this.flags.length) {
+            throw new IllegalStateException("Batch is full (" + this.size + " villagers)");
+        }
+        int i = this.size++;
+        this.blockX[i] = blockX;
+        this.blockY[i] = blockY;
+        this.blockZ[i] = blockZ;
+        this.experience[i] = experience;
+        this.flags[i] = (byte) flags;
+        return i;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int flags(int i) {
+        return this.flags[i];
+    }
+
+    public int experience(int i) {
+        return this.experience[i];
+    }
+
+    public int blockX(int i) {
+        return this.blockX[i];
+    }
+
+    public int blockY(int i) {
+        return this.blockY[i];
+    }
+
+    public int blockZ(int i) {
+        return this.blockZ[i];
+    }
+}
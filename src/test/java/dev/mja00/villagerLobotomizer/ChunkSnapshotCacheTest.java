@@ -0,0 +1,57 @@
+package dev.mja00.villagerLobotomizer;
+
+import org.bukkit.ChunkSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ChunkSnapshotCacheTest extends MockBukkitTestBase {
+
+    private WorldMock world;
+
+    @BeforeEach
+    void loadPlugin() {
+        MockBukkit.load(VillagerLobotomizer.class);
+        world = server.addSimpleWorld("test");
+    }
+
+    @Test
+    void snapshotIsReusedUntilItsChunkChanges() {
+        ChunkVersions versions = new ChunkVersions();
+        ChunkSnapshotCache cache = new ChunkSnapshotCache(versions);
+
+        ChunkSnapshot first = cache.snapshotOf(world, 0, 0);
+        assertSame(first, cache.snapshotOf(world, 0, 0));
+
+        versions.blockChanged(world.getUID(), 8, 8);
+        ChunkSnapshot second = cache.snapshotOf(world, 0, 0);
+        assertNotSame(first, second, "a changed chunk should be snapshotted again");
+        assertSame(second, cache.snapshotOf(world, 0, 0));
+    }
+
+    @Test
+    void snapshotIsTakenAgainAfterEnoughReuses() {
+        ChunkSnapshotCache cache = new ChunkSnapshotCache(new ChunkVersions());
+
+        ChunkSnapshot first = cache.snapshotOf(world, 0, 0);
+        for (int i = 0; i < ChunkSnapshotCache.MAX_REUSES; i++) {
+            assertSame(first, cache.snapshotOf(world, 0, 0));
+        }
+        assertNotSame(first, cache.snapshotOf(world, 0, 0));
+    }
+
+    @Test
+    void unloadedChunkIsForgotten() {
+        ChunkSnapshotCache cache = new ChunkSnapshotCache(new ChunkVersions());
+        cache.snapshotOf(world, 0, 0);
+
+        cache.forget(world.getUID(), 0, 0);
+
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,67 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChunkStampMapTest {
+    private final UUID world = UUID.randomUUID();
+
+    @Test
+    void stampsAreKeptPerWorldAndChunk() {
+        ChunkStampMap stamps = new ChunkStampMap();
+        stamps.put(this.world, -1, 2, 5L);
+        stamps.put(this.world, 2, -1, 6L);
+        stamps.put(UUID.randomUUID(), -1, 2, 7L);
+
+        assertEquals(5L, stamps.get(this.world, -1, 2));
+        assertEquals(6L, stamps.get(this.world, 2, -1));
+        assertEquals(0L, stamps.get(this.world, 0, 0));
+        assertEquals(3, stamps.size());
+    }
+
+    @Test
+    void restampedChunkSurvivesConditionalRemoval() {
+        ChunkStampMap stamps = new ChunkStampMap();
+        stamps.put(this.world, 0, 0, 5L);
+        stamps.put(this.world, 0, 0, 9L);
+
+        stamps.removeIfStamped(this.world, 0, 0, 5L);
+        assertEquals(9L, stamps.get(this.world, 0, 0), "a chunk changed again since it was visited should stay");
+
+        stamps.removeIfStamped(this.world, 0, 0, 9L);
+        assertEquals(0L, stamps.get(this.world, 0, 0));
+    }
+
+    @Test
+    void visitsEveryChunkAndForgetsRemovedOnes() {
+        ChunkStampMap stamps = new ChunkStampMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42L);
+        for (int i = 0; i < 5000; i++) {
+            int x = random.nextInt(64) - 32;
+            int z = random.nextInt(64) - 32;
+            long key = ((long) x << 32) | (z & 0xFFFFFFFFL);
+            if (random.nextInt(3) == 0) {
+                stamps.remove(this.world, x, z);
+                expected.remove(key);
+            } else {
+                long stamp = 1L + random.nextInt(1000);
+                stamps.put(this.world, x, z, stamp);
+                expected.put(key, stamp);
+            }
+        }
+
+        Map<Long, Long> visited = new HashMap<>();
+        stamps.forEach((world, x, z, stamp) -> visited.put(((long) x << 32) | (z & 0xFFFFFFFFL), stamp));
+        assertEquals(expected, visited);
+
+        stamps.forEach((world, x, z, stamp) -> stamps.removeIfStamped(world, x, z, stamp));
+        assertEquals(0, stamps.size());
+    }
+}
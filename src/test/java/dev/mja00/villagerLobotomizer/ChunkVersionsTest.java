@@ -0,0 +1,67 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkVersionsTest {
+    private final UUID world = UUID.randomUUID();
+
+    @Test
+    void unchangedChunkReadsAsZero() {
+        ChunkVersions versions = new ChunkVersions();
+        versions.blockChanged(this.world, 8, 8);
+
+        assertEquals(0L, versions.versionOf(this.world, 1, 0));
+        assertEquals(0L, versions.versionOf(UUID.randomUUID(), 0, 0), "changes in one world shouldn't show in another");
+    }
+
+    @Test
+    void changeMovesItsChunkForward() {
+        ChunkVersions versions = new ChunkVersions();
+        versions.blockChanged(this.world, 8, 8);
+        long first = versions.versionOf(this.world, 0, 0);
+        versions.blockChanged(this.world, 9, 8);
+
+        assertTrue(first > 0L);
+        assertTrue(versions.versionOf(this.world, 0, 0) > first, "every change should stamp the chunk anew");
+    }
+
+    @Test
+    void edgeChangeStampsTheChunkAcrossIt() {
+        ChunkVersions versions = new ChunkVersions();
+        versions.blockChanged(this.world, -16, 15);
+
+        assertNotEquals(0L, versions.versionOf(this.world, -1, 0));
+        assertNotEquals(0L, versions.versionOf(this.world, -2, 0), "a villager at x = -17 reads the block at x = -16");
+        assertNotEquals(0L, versions.versionOf(this.world, -1, 1), "a villager at z = 16 reads the block at z = 15");
+        assertEquals(0L, versions.versionOf(this.world, 0, 0));
+        assertEquals(0L, versions.versionOf(this.world, -1, -1));
+    }
+
+    @Test
+    void forgottenChunkReadsAsZero() {
+        ChunkVersions versions = new ChunkVersions();
+        versions.blockChanged(this.world, 8, 8);
+        versions.forget(this.world, 0, 0);
+
+        assertEquals(0L, versions.versionOf(this.world, 0, 0));
+        assertEquals(0, versions.size());
+    }
+
+    @Test
+    void chunkChangeStampsOnlyThatChunk() {
+        ChunkVersions versions = new ChunkVersions();
+        versions.blockChanged(this.world, 8, 8);
+        long before = versions.versionOf(this.world, 0, 0);
+
+        versions.chunkChanged(this.world, 0, 0);
+
+        assertTrue(versions.versionOf(this.world, 0, 0) > before);
+        assertEquals(0L, versions.versionOf(this.world, 1, 0));
+    }
+}
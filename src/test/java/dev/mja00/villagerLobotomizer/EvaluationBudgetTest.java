@@ -0,0 +1,64 @@
+package dev.mja00.villagerLobotomizer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvaluationBudgetTest {
+
+    @Test
+    void unlimitedBudgetNeverRunsOut() {
+        EvaluationBudget budget = new EvaluationBudget(0L, () -> 0);
+        budget.charge(Long.MAX_VALUE / 2);
+        assertTrue(budget.isUnlimited());
+        assertTrue(budget.hasRemaining(), "a budget of 0 should never defer evaluations");
+    }
+
+    @Test
+    void chargingPastTheBudgetExhaustsIt() {
+        EvaluationBudget budget = new EvaluationBudget(1_000_000L, () -> 0);
+        assertTrue(budget.hasRemaining(), "a fresh window should have budget left");
+
+        budget.charge(1_500_000L);
+
+        assertFalse(budget.hasRemaining(), "spending more than the budget should defer further evaluations this tick");
+    }
+
+    @Test
+    void budgetIsTrackedPerThread() throws InterruptedException {
+        EvaluationBudget budget = new EvaluationBudget(1_000_000L, () -> 0);
+        budget.charge(1_500_000L);
+
+        boolean[] otherThreadHasBudget = new boolean[1];
+        Thread other = new Thread(() -> otherThreadHasBudget[0] = budget.hasRemaining());
+        other.start();
+        other.join();
+
+        assertTrue(otherThreadHasBudget[0], "another region thread should have its own budget");
+    }
+
+    @Test
+    void budgetIsSharedByEveryCellInATick() {
+        EvaluationBudget budget = new EvaluationBudget(1_000_000L, () -> 0);
+
+        // Two cells ticking on the same thread in the same server tick.
+        budget.charge(600_000L);
+        assertTrue(budget.hasRemaining());
+        budget.charge(600_000L);
+
+        assertFalse(budget.hasRemaining(), "a second cell should not get a budget of its own in the same tick");
+    }
+
+    @Test
+    void nextTickRefillsTheBudget() {
+        int[] tick = {0};
+        EvaluationBudget budget = new EvaluationBudget(1_000_000L, () -> tick[0]);
+        budget.charge(1_500_000L);
+        assertFalse(budget.hasRemaining());
+
+        tick[0]++;
+
+        assertTrue(budget.hasRemaining(), "a tick should never start with an earlier tick's spend");
+    }
+}
@@ -0,0 +1,65 @@
+package dev.mja00.villagerLobotomizer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGovernorTest extends MockBukkitTestBase {
+
+    private VillagerLobotomizer plugin;
+
+    @BeforeEach
+    void loadPlugin() {
+        plugin = MockBukkit.load(VillagerLobotomizer.class);
+    }
+
+    @Test
+    void pausesTradesBeforeStretchingChecks() {
+        LoadGovernor governor = new LoadGovernor(plugin, true, 50.0, 18.0, 8);
+
+        assertTrue(governor.update(20.0, 60.0), "MSPT over the threshold should start shedding");
+        assertTrue(governor.tradeRefreshPaused());
+        assertEquals(1L, governor.intervalMultiplier(), "the first level should only pause trade refreshes");
+
+        governor.update(20.0, 60.0);
+        assertEquals(2L, governor.intervalMultiplier());
+        governor.update(15.0, Double.NaN);
+        assertEquals(4L, governor.intervalMultiplier(), "low TPS alone should keep escalating");
+    }
+
+    @Test
+    void stretchIsCappedAtTheMaxMultiplier() {
+        LoadGovernor governor = new LoadGovernor(plugin, true, 50.0, 18.0, 8);
+        for (int i = 0; i < 20; i++) {
+            governor.update(10.0, 90.0);
+        }
+
+        assertEquals(8L, governor.intervalMultiplier());
+        assertEquals(4L, governor.modeChanges(), "staying at the cap shouldn't count as a mode change");
+    }
+
+    @Test
+    void recoversOneLevelPerRunOfHealthySamples() {
+        LoadGovernor governor = new LoadGovernor(plugin, true, 50.0, 18.0, 8);
+        governor.update(20.0, 60.0);
+        governor.update(20.0, 60.0);
+        assertEquals(2, governor.level());
+
+        for (int i = 1; i < LoadGovernor.RECOVERY_SAMPLES; i++) {
+            assertFalse(governor.update(20.0, 20.0), "recovery should wait for several healthy samples");
+        }
+        assertTrue(governor.update(20.0, 20.0));
+        assertEquals(1, governor.level());
+
+        // Just under the threshold isn't healthy enough to count towards recovery.
+        for (int i = 0; i < LoadGovernor.RECOVERY_SAMPLES * 2; i++) {
+            governor.update(20.0, 45.0);
+        }
+        assertEquals(1, governor.level());
+        assertTrue(governor.tradeRefreshPaused());
+    }
+}
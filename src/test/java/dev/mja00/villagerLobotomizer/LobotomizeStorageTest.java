@@ -0,0 +1,124 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.List;
+
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import org.bukkit.Location;
+import org.bukkit.entity.Villager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LobotomizeStorageTest extends MockBukkitTestBase {
+
+    private VillagerLobotomizer plugin;
+    private WorldMock world;
+
+    @BeforeEach
+    void loadPlugin() {
+        plugin = MockBukkit.load(VillagerLobotomizer.class);
+        world = server.addSimpleWorld("test");
+    }
+
+    @Test
+    void reloadHandsTrackedVillagersOver() {
+        Villager villager = world.spawn(new Location(world, 0, 64, 0), Villager.class);
+        server.getPluginManager().callEvent(new EntityAddToWorldEvent(villager, world));
+        LobotomizeStorage previous = plugin.getStorage();
+        assertTrue(previous.getActive().contains(villager), "precondition: villager is tracked");
+
+        plugin.reloadPluginState(null);
+
+        assertNotSame(previous, plugin.getStorage());
+        // No scan tick has run yet, so the villager can only have come across in the handover.
+        assertTrue(plugin.getStorage().getActive().contains(villager),
+                "a tracked villager should stay tracked across a reload without being rescanned");
+    }
+
+    @Test
+    void configChangesTouchOnlyTheVillagersTheyCanAffect() {
+        Villager villager = world.spawn(new Location(world, 0, 64, 0), Villager.class);
+        server.getPluginManager().callEvent(new EntityAddToWorldEvent(villager, world));
+        LobotomizeStorage storage = plugin.getStorage();
+
+        // The villager has no custom name, so a new exempt name can't change its decision.
+        plugin.getConfig().set("always-active-names", List.of("Bob"));
+        assertEquals(0, storage.applyConfigChange("always-active-names"));
+
+        plugin.getConfig().set("check-roof", !plugin.getConfig().getBoolean("check-roof"));
+        assertEquals(1, storage.applyConfigChange("check-roof"));
+
+        plugin.getConfig().set("restock-interval", 1000L);
+        assertEquals(0, storage.applyConfigChange("restock-interval"));
+
+        assertEquals(-1, storage.applyConfigChange("chunk-sweep-threshold"));
+        assertTrue(storage.getActive().contains(villager), "a live change should not untrack anyone");
+    }
+
+    @Test
+    void unloadingChunkUntracksItsVillagers() {
+        Villager villager = world.spawn(new Location(world, 0, 64, 0), Villager.class);
+        server.getPluginManager().callEvent(new EntityAddToWorldEvent(villager, world));
+        LobotomizeStorage storage = plugin.getStorage();
+
+        storage.unloadChunk(villager.getChunk(), List.of(villager));
+
+        assertFalse(storage.getActive().contains(villager));
+        assertEquals(0, storage.getActive().size() + storage.getLobotomized().size());
+    }
+
+    @Test
+    void chunkIndexFindsTrackedVillagers() {
+        Villager villager = world.spawn(new Location(world, 0, 64, 0), Villager.class);
+        server.getPluginManager().callEvent(new EntityAddToWorldEvent(villager, world));
+        LobotomizeStorage storage = plugin.getStorage();
+
+        assertEquals(List.of(villager), storage.getTrackedVillagersIn(world.getChunkAt(0, 0)));
+        assertTrue(storage.getTrackedVillagersIn(world.getChunkAt(1, 0)).isEmpty());
+
+        storage.removeVillager(villager);
+        assertTrue(storage.getTrackedVillagersIn(world.getChunkAt(0, 0)).isEmpty());
+    }
+
+    @Test
+    void villagerArrivingTwiceIsScheduledOnce() {
+        Villager villager = world.spawn(new Location(world, 0, 64, 0), Villager.class);
+        server.getPluginManager().callEvent(new EntityAddToWorldEvent(villager, world));
+        LobotomizeStorage storage = plugin.getStorage();
+        TrackedVillager record = storage.getTrackedRecord(villager);
+        VillagerTimingWheel.Entry entry = record.entry;
+
+        // The same villager again from its chunk's entity load and from a rescan.
+        storage.admitChunk(villager.getChunk(), List.of(villager));
+        server.getScheduler().performTicks(5);
+        storage.addVillager(villager);
+
+        assertSame(record, storage.getTrackedRecord(villager));
+        assertSame(entry, record.entry, "a villager that is already tracked shouldn't be scheduled again");
+        assertEquals(1, storage.getTrackedCount());
+    }
+
+    @Test
+    void auditLeavesAnotherPluginsUnawareVillagerAlone() {
+        Villager villager = world.spawn(new Location(world, 0, 64, 0), Villager.class);
+        server.getPluginManager().callEvent(new EntityAddToWorldEvent(villager, world));
+        LobotomizeStorage storage = plugin.getStorage();
+        assertTrue(storage.getActive().contains(villager), "precondition: villager is tracked active");
+
+        // An NPC plugin turning the villager's AI off on purpose.
+        villager.setAware(false);
+        server.getScheduler().performTicks(5L);
+
+        assertFalse(villager.isAware(), "the audit should not wake a villager this plugin never lobotomized");
+        assertTrue(storage.getActive().contains(villager));
+        assertEquals(1, storage.getAuditor().reports().get("foreign_awareness"), "the change should be reported once");
+        assertEquals(0, storage.getAuditor().repairs().values().stream().mapToInt(Integer::intValue).sum());
+    }
+}
@@ -0,0 +1,69 @@
+package dev.mja00.villagerLobotomizer;
+
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlayerProximityIndexTest extends MockBukkitTestBase {
+
+    private VillagerLobotomizer plugin;
+    private WorldMock world;
+
+    @BeforeEach
+    void loadPlugin() {
+        plugin = MockBukkit.load(VillagerLobotomizer.class);
+        world = server.addSimpleWorld("test");
+    }
+
+    @Test
+    void villagersAreTieredByDistanceToTheNearestPlayer() {
+        PlayerMock player = server.addPlayer();
+        player.teleport(new Location(world, 0, 64, 0));
+        PlayerProximityIndex index = new PlayerProximityIndex(plugin, 24L, 128L);
+
+        index.refresh();
+
+        assertEquals(PlayerProximityIndex.Tier.NEAR, index.tierOf(new Location(world, 10, 64, 10)));
+        assertEquals(PlayerProximityIndex.Tier.MID, index.tierOf(new Location(world, 100, 64, 0)));
+        assertEquals(PlayerProximityIndex.Tier.FAR, index.tierOf(new Location(world, 500, 64, 0)));
+    }
+
+    @Test
+    void villagersInWorldsWithoutPlayersAreFar() {
+        WorldMock empty = server.addSimpleWorld("empty");
+        PlayerMock player = server.addPlayer();
+        player.teleport(new Location(world, 0, 64, 0));
+        PlayerProximityIndex index = new PlayerProximityIndex(plugin, 24L, 128L);
+
+        index.refresh();
+
+        assertEquals(PlayerProximityIndex.Tier.FAR, index.tierOf(new Location(empty, 0, 64, 0)));
+    }
+
+    @Test
+    void spectatorsDontCountAsNearby() {
+        PlayerMock player = server.addPlayer();
+        player.teleport(new Location(world, 0, 64, 0));
+        player.setGameMode(GameMode.SPECTATOR);
+        PlayerProximityIndex index = new PlayerProximityIndex(plugin, 24L, 128L);
+
+        index.refresh();
+
+        assertEquals(PlayerProximityIndex.Tier.FAR, index.tierOf(new Location(world, 0, 64, 0)));
+    }
+
+    @Test
+    void disabledTiersFallBackToMid() {
+        PlayerProximityIndex index = new PlayerProximityIndex(plugin, 0L, 0L);
+
+        index.refresh();
+
+        assertEquals(PlayerProximityIndex.Tier.MID, index.tierOf(new Location(world, 0, 64, 0)));
+    }
+}
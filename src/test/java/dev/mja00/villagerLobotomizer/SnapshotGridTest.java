@@ -0,0 +1,116 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.bukkit.Material;
+import org.bukkit.block.data.type.Gate;
+import org.bukkit.block.data.type.Snow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+
+import dev.mja00.villagerLobotomizer.policy.BlockSnapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotGridTest extends MockBukkitTestBase {
+
+    private WorldMock world;
+
+    @BeforeEach
+    void loadPlugin() {
+        MockBukkit.load(VillagerLobotomizer.class);
+        world = server.addSimpleWorld("test");
+    }
+
+    @Test
+    void readsCapturedBlocks() {
+        world.getBlockAt(3, 64, 5).setType(Material.STONE);
+        SnapshotGrid grid = new SnapshotGrid(world);
+
+        grid.capture(world, 0, 0);
+
+        BlockSnapshot stone = grid.at(3, 64, 5);
+        assertEquals(Material.STONE, stone.type());
+        assertFalse(stone.passable());
+        assertTrue(grid.at(3, 65, 5).passable());
+    }
+
+    @Test
+    void uncapturedChunksReadAsUnloaded() {
+        SnapshotGrid grid = new SnapshotGrid(world);
+
+        grid.capture(world, 0, 0);
+
+        assertNull(grid.at(40, 64, 40));
+    }
+
+    @Test
+    void villagersOnAChunkEdgeCaptureTheNeighbour() {
+        world.getBlockAt(16, 64, 5).setType(Material.STONE);
+        SnapshotGrid grid = new SnapshotGrid(world);
+
+        grid.captureAround(world, 15, 5);
+
+        assertEquals(Material.STONE, grid.at(16, 64, 5).type());
+        assertNull(grid.at(5, 64, -1));
+    }
+
+    @Test
+    void blocksWithoutCollisionArePassable() {
+        assertTrue(SnapshotGrid.isPassable(Material.AIR, Material.AIR.createBlockData()));
+        assertFalse(SnapshotGrid.isPassable(Material.STONE, Material.STONE.createBlockData()));
+    }
+
+    @Test
+    void passabilityFollowsCollisionShapes() {
+        // Blocks with a collision shape, however thin or low.
+        for (Material type : List.of(Material.STONE, Material.WHITE_CARPET, Material.OAK_SLAB, Material.OAK_DOOR,
+                Material.OAK_TRAPDOOR, Material.OAK_FENCE)) {
+            assertFalse(SnapshotGrid.isPassable(type, type.createBlockData()), type + " should block");
+        }
+        // Blocks without one, or with one that is empty when no entity is asking.
+        for (Material type : List.of(Material.AIR, Material.TORCH, Material.POPPY, Material.STONE_PRESSURE_PLATE,
+                Material.RAIL, Material.SCAFFOLDING, Material.POWDER_SNOW)) {
+            assertTrue(SnapshotGrid.isPassable(type, type.createBlockData()), type + " should be passable");
+        }
+
+        assertTrue(SnapshotGrid.isPassable(Material.OAK_FENCE_GATE, gate(true)));
+        assertFalse(SnapshotGrid.isPassable(Material.OAK_FENCE_GATE, gate(false)));
+        assertTrue(SnapshotGrid.isPassable(Material.SNOW, snow(1)));
+        assertFalse(SnapshotGrid.isPassable(Material.SNOW, snow(2)));
+    }
+
+    @Test
+    void readingAnEstimatedBlockIsNoted() {
+        world.getBlockAt(3, 64, 5).setType(Material.STONE);
+        world.getBlockAt(4, 64, 5).setType(Material.OAK_FENCE);
+        SnapshotGrid grid = new SnapshotGrid(world);
+        grid.capture(world, 0, 0);
+
+        grid.at(3, 64, 5);
+        grid.at(3, 65, 5);
+        assertFalse(grid.readEstimate(), "stone and air are certain either way");
+
+        grid.at(4, 64, 5);
+        assertTrue(grid.readEstimate(), "a fence's collision can only be estimated from a snapshot");
+
+        grid.clearReadEstimate();
+        assertFalse(grid.readEstimate());
+    }
+
+    private static Gate gate(boolean open) {
+        return (Gate) Proxy.newProxyInstance(Gate.class.getClassLoader(), new Class<?>[]{Gate.class},
+                (proxy, method, args) -> method.getName().equals("isOpen") ? open : null);
+    }
+
+    private static Snow snow(int layers) {
+        return (Snow) Proxy.newProxyInstance(Snow.class.getClassLoader(), new Class<?>[]{Snow.class},
+                (proxy, method, args) -> method.getName().equals("getLayers") ? layers : null);
+    }
+}
@@ -0,0 +1,62 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickLoadHistogramTest {
+
+    @Test
+    void countsFallIntoPowerOfTwoBuckets() {
+        assertEquals(0, TickLoadHistogram.bucketOf(0));
+        assertEquals(1, TickLoadHistogram.bucketOf(1));
+        assertEquals(2, TickLoadHistogram.bucketOf(3));
+        assertEquals(3, TickLoadHistogram.bucketOf(4));
+        assertEquals(7, TickLoadHistogram.bucketOf(64));
+        assertEquals(7, TickLoadHistogram.bucketOf(10_000), "huge counts should land in the last bucket");
+    }
+
+    @Test
+    void sharesAreRelativeToAllRecordedTicks() {
+        TickLoadHistogram histogram = new TickLoadHistogram();
+        assertTrue(histogram.perMille().isEmpty(), "nothing recorded should report no shares");
+
+        histogram.record(0);
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(5);
+
+        Map<String, Integer> shares = histogram.perMille();
+        assertEquals(500, shares.get("0").intValue());
+        assertEquals(250, shares.get("1").intValue());
+        assertEquals(250, shares.get("4-7").intValue());
+        assertEquals(0, shares.get("64+").intValue());
+    }
+
+    @Test
+    void phasesSpreadAcrossTheInterval() {
+        long interval = 150L;
+        int villagers = 15_000;
+        int[] perTick = new int[(int) interval + 1];
+        for (int i = 0; i < villagers; i++) {
+            long phase = VillagerTimingWheel.phaseOf(UUID.randomUUID(), interval);
+            assertTrue(phase >= 1L && phase <= interval, "phase " + phase + " is outside [1, " + interval + "]");
+            perTick[(int) phase]++;
+        }
+        // 100 expected per tick; a lockstep or badly mixed hash would pile far more onto some ticks.
+        for (int tick = 1; tick <= interval; tick++) {
+            assertTrue(perTick[tick] < 200, "tick " + tick + " got " + perTick[tick] + " first checks");
+        }
+    }
+
+    @Test
+    void phaseIsStableForAVillager() {
+        UUID id = UUID.randomUUID();
+        assertEquals(VillagerTimingWheel.phaseOf(id, 600L), VillagerTimingWheel.phaseOf(id, 600L));
+        assertEquals(1L, VillagerTimingWheel.phaseOf(id, 1L));
+    }
+}
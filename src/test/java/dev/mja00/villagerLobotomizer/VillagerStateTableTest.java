@@ -0,0 +1,281 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Villager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VillagerStateTableTest extends MockBukkitTestBase {
+
+    private WorldMock world;
+
+    @BeforeEach
+    void loadPlugin() {
+        MockBukkit.load(VillagerLobotomizer.class);
+        world = server.addSimpleWorld("test");
+    }
+
+    private Villager spawnVillager(int x) {
+        return world.spawn(new Location(world, x, 64, 0), Villager.class);
+    }
+
+    @Test
+    void villagerIsNeverInBothStates() {
+        VillagerStateTable states = new VillagerStateTable();
+        Villager villager = spawnVillager(0);
+
+        TrackedVillager tracked = states.track(villager, VillagerStateTable.State.ACTIVE);
+        assertEquals(VillagerStateTable.State.ACTIVE, states.transition(tracked, VillagerStateTable.State.INACTIVE));
+
+        assertEquals(VillagerStateTable.State.INACTIVE, states.stateOf(villager));
+        assertFalse(states.active().contains(villager));
+        assertTrue(states.inactive().contains(villager));
+    }
+
+    @Test
+    void viewsCountEachState() {
+        VillagerStateTable states = new VillagerStateTable();
+        for (int i = 0; i < 20; i++) {
+            Villager villager = spawnVillager(i);
+            if (i % 4 == 0) {
+                states.track(villager, VillagerStateTable.State.INACTIVE);
+            } else {
+                states.track(villager, VillagerStateTable.State.ACTIVE);
+            }
+        }
+
+        assertEquals(15, states.active().size());
+        assertEquals(5, states.inactive().size());
+        int iterated = 0;
+        for (Villager ignored : states.active()) {
+            iterated++;
+        }
+        assertEquals(15, iterated);
+    }
+
+    @Test
+    void repeatedTransitionsDontSkewCounts() {
+        VillagerStateTable states = new VillagerStateTable();
+        Villager villager = spawnVillager(0);
+
+        states.track(villager, VillagerStateTable.State.ACTIVE);
+        states.track(villager, VillagerStateTable.State.ACTIVE);
+        states.track(villager, VillagerStateTable.State.INACTIVE);
+        states.track(villager, VillagerStateTable.State.INACTIVE);
+
+        assertEquals(0, states.active().size());
+        assertEquals(1, states.inactive().size());
+    }
+
+    @Test
+    void removeReportsThePreviousState() {
+        VillagerStateTable states = new VillagerStateTable();
+        Villager villager = spawnVillager(0);
+        states.track(villager, VillagerStateTable.State.INACTIVE);
+
+        assertEquals(VillagerStateTable.State.INACTIVE, states.remove(villager));
+        assertEquals(VillagerStateTable.State.UNTRACKED, states.remove(villager));
+        assertFalse(states.isTracked(villager));
+        assertEquals(0, states.inactive().size());
+    }
+
+    @Test
+    void untrackedRecordStaysUntracked() {
+        VillagerStateTable states = new VillagerStateTable();
+        Villager villager = spawnVillager(0);
+        TrackedVillager tracked = states.track(villager, VillagerStateTable.State.ACTIVE);
+
+        states.remove(villager);
+
+        assertEquals(VillagerStateTable.State.UNTRACKED, states.transition(tracked, VillagerStateTable.State.INACTIVE));
+        assertFalse(states.isTracked(villager));
+        TrackedVillager again = states.track(villager, VillagerStateTable.State.ACTIVE);
+        assertNotSame(tracked, again);
+        assertEquals(VillagerStateTable.State.UNTRACKED, states.remove(tracked));
+        assertSame(again, states.get(villager));
+    }
+
+    @Test
+    void drainEmptiesTheTable() {
+        VillagerStateTable states = new VillagerStateTable();
+        Villager active = spawnVillager(0);
+        Villager inactive = spawnVillager(1);
+        states.track(active, VillagerStateTable.State.ACTIVE);
+        states.track(inactive, VillagerStateTable.State.INACTIVE);
+
+        List<Villager> drained = states.drain(VillagerStateTable.State.INACTIVE);
+
+        assertEquals(List.of(inactive), drained);
+        assertEquals(0, states.size());
+        assertEquals(0, states.active().size() + states.inactive().size());
+    }
+
+    @Test
+    void removalsKeepTheRestReachable() {
+        VillagerStateTable states = new VillagerStateTable();
+        List<Villager> villagers = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Villager villager = spawnVillager(i);
+            villagers.add(villager);
+            states.track(villager, VillagerStateTable.State.ACTIVE);
+        }
+
+        for (int i = 0; i < villagers.size(); i += 2) {
+            states.remove(villagers.get(i));
+        }
+
+        for (int i = 0; i < villagers.size(); i++) {
+            assertEquals(i % 2 == 0 ? VillagerStateTable.State.UNTRACKED : VillagerStateTable.State.ACTIVE,
+                    states.stateOf(villagers.get(i)));
+        }
+        assertEquals(150, states.size());
+        assertEquals(150, states.active().size());
+    }
+
+    @Test
+    void samplingWalksEveryVillager() {
+        VillagerStateTable states = new VillagerStateTable();
+        for (int i = 0; i < 100; i++) {
+            states.track(spawnVillager(i), VillagerStateTable.State.ACTIVE);
+        }
+
+        Set<Villager> seen = new HashSet<>();
+        long cursor = 0;
+        for (int call = 0; call < 15; call++) {
+            cursor = states.sample(cursor, 7, (tracked, state) -> seen.add(tracked.villager()));
+        }
+
+        assertEquals(100, seen.size());
+    }
+
+    @Test
+    void countsAreBrokenDownByWorldAndProfession() {
+        VillagerStateTable states = new VillagerStateTable();
+        WorldMock nether = server.addSimpleWorld("nether");
+        Villager farmer = spawnVillager(0);
+        farmer.setProfession(Villager.Profession.FARMER);
+        Villager elsewhere = nether.spawn(new Location(nether, 0, 64, 0), Villager.class);
+        elsewhere.setProfession(Villager.Profession.FARMER);
+        states.track(farmer, VillagerStateTable.State.ACTIVE);
+        states.track(elsewhere, VillagerStateTable.State.INACTIVE);
+
+        assertEquals(new VillagerStateTable.StateCounts(1, 0), states.countsByWorld().get("test"));
+        assertEquals(new VillagerStateTable.StateCounts(0, 1), states.countsByWorld().get("nether"));
+        assertEquals(new VillagerStateTable.StateCounts(1, 1), states.countsByProfession().get("farmer"));
+
+        states.remove(elsewhere);
+        assertFalse(states.countsByWorld().containsKey("nether"));
+    }
+
+    @Test
+    void lookupsNeverMissAVillagerWhileOthersComeAndGo() throws InterruptedException {
+        VillagerStateTable states = new VillagerStateTable();
+        List<Villager> stable = new ArrayList<>();
+        List<Villager> churn = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            Villager villager = spawnVillager(i);
+            if (i % 10 == 0) {
+                stable.add(villager);
+                states.track(villager, VillagerStateTable.State.INACTIVE);
+            } else {
+                churn.add(villager);
+            }
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger misses = new AtomicInteger();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            Thread reader = new Thread(() -> {
+                while (!done.get()) {
+                    for (Villager villager : stable) {
+                        if (!states.isTracked(villager) || !states.inactive().contains(villager)) {
+                            misses.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        // Adding grows the segments and removing shifts runs back, both under the readers' feet.
+        for (int round = 0; round < 200; round++) {
+            for (Villager villager : churn) {
+                states.track(villager, VillagerStateTable.State.ACTIVE);
+            }
+            for (Villager villager : churn) {
+                states.remove(villager);
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(0, misses.get(), "a villager that stayed tracked should always be found");
+        assertEquals(stable.size(), states.size());
+    }
+
+    @Test
+    void racingTransitionsAndRemovalsKeepCountsExact() throws InterruptedException {
+        VillagerStateTable states = new VillagerStateTable();
+        List<TrackedVillager> records = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            records.add(states.track(spawnVillager(i), VillagerStateTable.State.ACTIVE));
+        }
+
+        // Transitions take no lock, so the same records are flipped from several threads at once
+        // while half of them are untracked underneath.
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            int seed = w;
+            Thread writer = new Thread(() -> {
+                for (int round = 0; round < 500; round++) {
+                    for (TrackedVillager tracked : records) {
+                        states.transition(tracked, (round + seed) % 2 == 0
+                                ? VillagerStateTable.State.INACTIVE : VillagerStateTable.State.ACTIVE);
+                    }
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        for (int i = 0; i < records.size(); i += 2) {
+            states.remove(records.get(i));
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        int active = 0;
+        int inactive = 0;
+        for (TrackedVillager tracked : records) {
+            if (tracked.state() == VillagerStateTable.State.ACTIVE) {
+                active++;
+            } else if (tracked.state() == VillagerStateTable.State.INACTIVE) {
+                inactive++;
+            }
+        }
+        assertEquals(records.size() / 2, active + inactive, "a removed record should stay untracked");
+        assertEquals(active, states.active().size());
+        assertEquals(inactive, states.inactive().size());
+        VillagerStateTable.StateCounts counts = states.countsByWorld().get("test");
+        assertEquals(active, counts.active());
+        assertEquals(inactive, counts.inactive());
+    }
+}
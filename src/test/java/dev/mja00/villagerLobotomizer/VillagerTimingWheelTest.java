@@ -0,0 +1,128 @@
+package dev.mja00.villagerLobotomizer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Villager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VillagerTimingWheelTest extends MockBukkitTestBase {
+
+    private VillagerLobotomizer plugin;
+    private WorldMock world;
+
+    @BeforeEach
+    void loadPlugin() {
+        plugin = MockBukkit.load(VillagerLobotomizer.class);
+        world = server.addSimpleWorld("test");
+    }
+
+    @Test
+    void deferredChecksRunOnceEachAcrossTicks() {
+        // A budget of 1 ns lets every driver tick run exactly one check, so with three villagers due
+        // every tick two of them are deferred on every tick.
+        EvaluationBudget budget = new EvaluationBudget(1L);
+        LoadGovernor governor = new LoadGovernor(plugin, false, 50.0, 18.0, 8);
+        List<TrackedVillager> ran = new ArrayList<>();
+        VillagerTimingWheel wheel = new VillagerTimingWheel(plugin, (tracked) -> {
+            ran.add(tracked);
+            long start = System.nanoTime();
+            while (System.nanoTime() == start) {
+                Thread.onSpinWait();
+            }
+        }, budget, governor, (villagers, interval) -> interval, 0, (tracked) -> { }, () -> 20L);
+        List<TrackedVillager> villagers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TrackedVillager tracked = new TrackedVillager(world.spawn(new Location(world, i, 64, 0), Villager.class));
+            villagers.add(tracked);
+            assertTrue(wheel.schedule(tracked, 1L));
+        }
+
+        for (int tick = 0; tick < 30; tick++) {
+            int before = ran.size();
+            server.getScheduler().performOneTick();
+            assertTrue(ran.size() - before <= 1, "the budget should allow one check per tick");
+            assertTrue(wheel.carriedOverCount() <= villagers.size(), "a deferred check should be queued only once");
+        }
+
+        for (TrackedVillager tracked : villagers) {
+            long runs = ran.stream().filter((r) -> r == tracked).count();
+            assertTrue(runs >= 9 && runs <= 11, "deferred checks should take turns, got " + runs + " runs");
+        }
+        assertEquals(3, wheel.scheduledCount());
+        wheel.shutdown();
+    }
+
+    @Test
+    void suspendedVillagerIsStillRestocked() {
+        List<TrackedVillager> restocked = new ArrayList<>();
+        VillagerTimingWheel wheel = new VillagerTimingWheel(plugin, (tracked) -> { }, new EvaluationBudget(0L),
+                new LoadGovernor(plugin, false, 50.0, 18.0, 8), (villagers, interval) -> interval, 0,
+                restocked::add, () -> 20L);
+        TrackedVillager tracked = new TrackedVillager(world.spawn(new Location(world, 0, 64, 0), Villager.class));
+        assertTrue(wheel.schedule(tracked, 100L));
+
+        wheel.settle(tracked, 1);
+        assertEquals(1, wheel.suspendedCount());
+        server.getScheduler().performTicks(20L);
+
+        assertEquals(List.of(tracked), restocked, "a suspended chunk should still restock its villagers");
+
+        wheel.resume(tracked);
+        server.getScheduler().performTicks(40L);
+
+        assertEquals(1, restocked.size(), "a resumed chunk restocks through its checks again");
+        wheel.shutdown();
+    }
+
+    @Test
+    void villagersRescheduledTogetherStaySpread() {
+        List<TrackedVillager> ran = new ArrayList<>();
+        VillagerTimingWheel wheel = new VillagerTimingWheel(plugin, ran::add, new EvaluationBudget(0L),
+                new LoadGovernor(plugin, false, 50.0, 18.0, 8), (villagers, interval) -> interval, 0,
+                (tracked) -> { }, () -> 20L);
+        List<TrackedVillager> villagers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            TrackedVillager tracked = new TrackedVillager(world.spawn(new Location(world, i, 64, 0), Villager.class));
+            villagers.add(tracked);
+            assertTrue(wheel.schedule(tracked, 50L));
+        }
+
+        // A block change in a hall reschedules every villager in it on the same tick.
+        for (TrackedVillager tracked : villagers) {
+            wheel.reschedule(tracked, 100L);
+        }
+        int busiest = 0;
+        // The interval, plus the few slots an insert may be nudged by.
+        for (int tick = 0; tick < 108; tick++) {
+            int before = ran.size();
+            server.getScheduler().performOneTick();
+            busiest = Math.max(busiest, ran.size() - before);
+        }
+
+        assertEquals(100, new HashSet<>(ran).size(), "every villager should run within its new interval");
+        assertTrue(busiest <= 4, "rescheduled villagers should keep their phases, but " + busiest + " ran on one tick");
+        wheel.shutdown();
+    }
+
+    @Test
+    void phaseDelayLandsOnThePhase() {
+        for (int i = 0; i < 1000; i++) {
+            UUID id = UUID.randomUUID();
+            long interval = 1 + (i % 300);
+            long tick = i * 7919L;
+            long delay = VillagerTimingWheel.phaseDelay(id, interval, tick);
+            assertTrue(delay >= 1 && delay <= interval);
+            assertEquals(0L, Math.floorMod(tick + delay - VillagerTimingWheel.phaseOf(id, interval), interval));
+        }
+    }
+}
@@ -56,17 +56,18 @@ class EntityListenerTest extends MockBukkitTestBase {
     }
 
     @Test
-    void constructorScanTracksExistingVillagers() {
+    void villagerScanTracksExistingVillagers() {
         Villager villager = world.spawn(new Location(world, 0, 64, 0), Villager.class);
 
-        // Untrack first so the constructor scan is the only thing that can re-track it; this holds
-        // whether or not spawning auto-fired an add event through the already-registered listener.
+        // Untrack first so the scan is the only thing that can re-track it; this holds whether or
+        // not spawning auto-fired an add event through the already-registered listener.
         plugin.getStorage().removeVillager(villager);
         assertFalse(isTracked(villager), "precondition: villager is untracked before the scan");
 
-        // A fresh listener scans loaded worlds and registers existing villagers
-        new EntityListener(plugin);
+        // The scan hands out loaded chunks from a global task and scans each on its region
+        plugin.startVillagerScan(null);
+        server.getScheduler().performTicks(5);
 
-        assertTrue(isTracked(villager), "existing villagers should be picked up by the constructor scan");
+        assertTrue(isTracked(villager), "existing villagers should be picked up by the villager scan");
     }
 }
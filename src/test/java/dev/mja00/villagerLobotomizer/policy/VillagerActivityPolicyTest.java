@@ -3,12 +3,16 @@ package dev.mja00.villagerLobotomizer.policy;
 import org.bukkit.Material;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class VillagerActivityPolicyTest {
@@ -265,4 +269,54 @@ class VillagerActivityPolicyTest {
                 .set(0, 65, -1, STONE);
         assertFalse(defaultPolicy().shouldBeActive(villager("", 0, 64, 0), grid));
     }
+
+    @Test
+    void policiesFromTheSameSettingsDecideAlike() {
+        assertTrue(defaultPolicy().decidesLike(defaultPolicy()));
+        assertTrue(policy(false, false, false, false, false, false, Set.of("bob"))
+                .decidesLike(policy(false, false, false, false, false, false, Set.of("bob"))));
+        assertFalse(defaultPolicy().decidesLike(policy(false, false, false, true, false, false, Set.of())));
+        assertFalse(defaultPolicy().decidesLike(policy(false, false, false, false, false, false, Set.of("bob"))));
+    }
+
+    @Test
+    void batchDecidesLikeSingleChecks() {
+        VillagerActivityPolicy p = policy(true, true, true, false, false, false, Set.of("keepme"));
+        // A row of cells 4 blocks apart: sealed, open, and sealed with water at the feet.
+        TestGrid grid = sealedBox(0, 64, 0).set(8, 64, 0, WATER);
+        grid.set(9, 64, 0, STONE).set(7, 64, 0, STONE).set(8, 64, 1, STONE).set(8, 64, -1, STONE);
+        List<VillagerState> villagers = new ArrayList<>();
+        for (int x : new int[]{0, 4, 8}) {
+            villagers.add(villager("", x, 64, 0));
+            villagers.add(villager("keepme", x, 64, 0));
+            villagers.add(villager("nobrain", x, 64, 0));
+            villagers.add(new VillagerState("", true, false, false, false, 10, x, 64, 0));
+            villagers.add(new VillagerState("", false, true, false, false, 10, x, 64, 0));
+            villagers.add(new VillagerState("", false, false, true, false, 10, x, 64, 0));
+            villagers.add(new VillagerState("", false, false, false, true, 10, x, 64, 0));
+            villagers.add(new VillagerState("", false, false, false, false, 0, x, 64, 0));
+        }
+
+        VillagerBatch batch = new VillagerBatch(p, villagers.size());
+        for (VillagerState v : villagers) {
+            batch.add(v);
+        }
+        boolean[] decisions = new boolean[batch.size()];
+        p.shouldBeActive(batch, grid, decisions);
+
+        for (int i = 0; i < villagers.size(); i++) {
+            VillagerState v = villagers.get(i);
+            assertEquals(p.shouldBeActive(v, grid), decisions[i], "villager " + i + " " + v);
+            int flags = p.flagsOf(v.name(), v.swimming(), v.sleeping(), v.hasVehicle(), v.professionNone());
+            assertEquals(flags, batch.flags(i));
+            assertEquals(decisions[i], p.shouldBeActive(flags, v.experience(), v.blockX(), v.blockY(), v.blockZ(), grid));
+        }
+    }
+
+    @Test
+    void batchIsOnlyEvaluatedByItsOwnPolicy() {
+        VillagerBatch batch = new VillagerBatch(defaultPolicy(), 1);
+        batch.add(villager("", 0, 64, 0));
+        assertThrows(IllegalArgumentException.class, () -> defaultPolicy().shouldBeActive(batch, new TestGrid(), new boolean[1]));
+    }
 }